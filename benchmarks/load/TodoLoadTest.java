@@ -0,0 +1,376 @@
+// Closed-loop HTTP load generator for the todo API. JDK only, run as a single-file program (Java 21):
+//
+//   java benchmarks/load/TodoLoadTest.java --base-url http://localhost:8080 --clients 1000 --duration 60s
+//
+// Registers --users accounts through POST /register, seeds each with --seed todos through POST /todos/batch, then
+// runs --clients concurrent clients (one virtual thread each) issuing the requests of --workload:
+//
+//   list      GET /todos first page without the count
+//   list-deep GET /todos at a random page in the last tenth of the user's todos, with the count
+//   create    POST /todos
+//   update    PUT /todos/{id} on a random seeded todo
+//   mixed     70% list, 10% list-deep, 10% create, 10% update
+//
+// Prints throughput and latency percentiles per endpoint. When the app exposes /actuator/prometheus on --metrics-url
+// (its management port, default http://localhost:9090) it also reports the server's allocation rate over the run
+// (from jvm_gc_memory_allocated_bytes_total, so it is GC-granular). That counter is server-wide, so bytes per request
+// are only attributed to an endpoint for single-endpoint workloads; for mixed only the server-wide rate is reported.
+// With --json <file> the same numbers are written as one JSON object.
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class TodoLoadTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Pattern ALLOCATED = Pattern.compile("(?m)^jvm_gc_memory_allocated_bytes_total(?:\\{[^}]*})?\\s+(\\S+)$");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        String metricsUrl = options.getOrDefault("metrics-url", "http://localhost:9090");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "1000"));
+        int users = Integer.parseInt(options.getOrDefault("users", "50"));
+        int seed = Integer.parseInt(options.getOrDefault("seed", "100"));
+        int limit = Integer.parseInt(options.getOrDefault("limit", "20"));
+        Duration warmup = parseDuration(options.getOrDefault("warmup", "10s"));
+        Duration duration = parseDuration(options.getOrDefault("duration", "60s"));
+        String workloadName = options.getOrDefault("workload", "list");
+        String label = options.getOrDefault("label", workloadName);
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        Workload workload = workload(workloadName, baseUrl, limit);
+        List<Account> accounts = setUp(http, baseUrl, users, seed);
+        System.out.printf("%s: %d users seeded with %d todos each, %d clients, workload %s%n",
+                label, users, seed, clients, workloadName);
+
+        run(http, accounts, workload, clients, warmup);
+        double allocatedBefore = allocatedBytes(http, metricsUrl);
+        Result result = run(http, accounts, workload, clients, duration);
+        double allocatedAfter = allocatedBytes(http, metricsUrl);
+        double allocationRate = allocatedBefore < 0 || allocatedAfter < 0
+                ? -1 : (allocatedAfter - allocatedBefore) / (result.elapsedNanos() / 1e9);
+
+        for (Map.Entry<String, Stats> entry : result.endpoints().entrySet()) {
+            Stats stats = entry.getValue();
+            System.out.printf(Locale.ROOT,
+                    "%s %-22s %8.0f req/s  p50 %7.2f ms  p90 %7.2f ms  p99 %7.2f ms  max %8.2f ms  errors %d %s%n",
+                    label, entry.getKey(), stats.throughput(result.elapsedNanos()), stats.percentileMillis(50),
+                    stats.percentileMillis(90), stats.percentileMillis(99), stats.percentileMillis(100),
+                    stats.errors(), stats.errorsByStatus().isEmpty() ? "" : stats.errorsByStatus());
+        }
+        if (allocationRate >= 0 && result.endpoints().size() == 1) {
+            System.out.printf(Locale.ROOT, "%s %-22s server allocation %.1f MB/s, %.1f KB per request%n", label,
+                    result.endpoints().keySet().iterator().next(), allocationRate / 1e6,
+                    allocationRate / result.throughput() / 1e3);
+        } else if (allocationRate >= 0) {
+            System.out.printf(Locale.ROOT, "%s server allocation %.1f MB/s across all endpoints "
+                    + "(server-wide; not attributable per endpoint in a mixed workload)%n", label, allocationRate / 1e6);
+        }
+
+        String jsonFile = options.get("json");
+        if (jsonFile != null) {
+            Files.writeString(Path.of(jsonFile),
+                    result.toJson(label, workloadName, clients, allocationRate) + System.lineSeparator());
+        }
+    }
+
+    private record Account(String token, long[] todoIds) {
+    }
+
+    private record Call(String endpoint, HttpRequest request) {
+    }
+
+    private interface Workload {
+        Call next(Account account, ThreadLocalRandom random);
+    }
+
+    private static Workload workload(String name, String baseUrl, int limit) {
+        Workload list = (account, random) -> new Call("GET /todos",
+                get(baseUrl + "/todos?limit=" + limit + "&total=false", account));
+        Workload listDeep = (account, random) -> {
+            int pages = Math.max(1, account.todoIds().length / limit);
+            int page = pages - random.nextInt(Math.max(1, pages / 10));
+            return new Call("GET /todos?page=deep", get(baseUrl + "/todos?limit=" + limit + "&page=" + page, account));
+        };
+        Workload create = (account, random) -> new Call("POST /todos", send("POST", baseUrl + "/todos", account.token(),
+                "{\"title\":\"load " + random.nextInt() + "\",\"description\":\"created by load test\"}"));
+        Workload update = (account, random) -> {
+            long id = account.todoIds()[random.nextInt(account.todoIds().length)];
+            return new Call("PUT /todos/{id}", send("PUT", baseUrl + "/todos/" + id, account.token(),
+                    "{\"title\":\"updated " + random.nextInt() + "\",\"description\":\"updated by load test\",\"completed\":"
+                            + random.nextBoolean() + "}"));
+        };
+        return switch (name) {
+            case "list" -> list;
+            case "list-deep" -> listDeep;
+            case "create" -> create;
+            case "update" -> update;
+            case "mixed" -> (account, random) -> {
+                int roll = random.nextInt(10);
+                Workload chosen = roll < 7 ? list : roll == 7 ? listDeep : roll == 8 ? create : update;
+                return chosen.next(account, random);
+            };
+            default -> throw new IllegalArgumentException("Unknown workload " + name);
+        };
+    }
+
+    private static List<Account> setUp(HttpClient http, String baseUrl, int users, int seed) throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<Account> accounts = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) {
+            String body = String.format("{\"name\":\"load %d\",\"email\":\"load-%s-%d@example.com\",\"password\":\"load-password\"}",
+                    u, runId, u);
+            HttpResponse<String> response = http.send(send("POST", baseUrl + "/register", null, body),
+                    HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = TOKEN.matcher(response.body());
+            if (response.statusCode() != 200 || !matcher.find()) {
+                throw new IllegalStateException("Register failed: " + response.statusCode() + " " + response.body());
+            }
+            String token = matcher.group(1);
+
+            StringBuilder todos = new StringBuilder("[");
+            for (int i = 0; i < seed; i++) {
+                if (i > 0) {
+                    todos.append(',');
+                }
+                todos.append("{\"title\":\"todo ").append(i).append("\",\"description\":\"seeded by load test\"}");
+            }
+            todos.append(']');
+            HttpResponse<String> seeded = http.send(send("POST", baseUrl + "/todos/batch", token, todos.toString()),
+                    HttpResponse.BodyHandlers.ofString());
+            if (seeded.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Seeding failed: " + seeded.statusCode() + " " + seeded.body());
+            }
+            accounts.add(new Account(token, ID.matcher(seeded.body()).results()
+                    .mapToLong(match -> Long.parseLong(match.group(1)))
+                    .toArray()));
+        }
+        return accounts;
+    }
+
+    private static Result run(HttpClient http, List<Account> accounts, Workload workload, int clients,
+                              Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Map<String, Recorder>> recorders = new ArrayList<>(clients);
+        Map<String, Map<String, LongAdder>> errors = new ConcurrentHashMap<>();
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                Map<String, Recorder> clientRecorders = new HashMap<>();
+                recorders.add(clientRecorders);
+                Account account = accounts.get(c % accounts.size());
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        Call call = workload.next(account, random);
+                        long sent = System.nanoTime();
+                        String error;
+                        try {
+                            HttpResponse<Void> response = http.send(call.request(), HttpResponse.BodyHandlers.discarding());
+                            error = response.statusCode() / 100 == 2 ? null : Integer.toString(response.statusCode());
+                        } catch (IOException e) {
+                            error = e.getClass().getSimpleName();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        if (error == null) {
+                            clientRecorders.computeIfAbsent(call.endpoint(), k -> new Recorder()).add(System.nanoTime() - sent);
+                        } else {
+                            errors.computeIfAbsent(call.endpoint(), k -> new ConcurrentHashMap<>())
+                                    .computeIfAbsent(error, k -> new LongAdder())
+                                    .increment();
+                        }
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Map<String, List<Recorder>> byEndpoint = new TreeMap<>();
+        for (Map<String, Recorder> clientRecorders : recorders) {
+            clientRecorders.forEach((endpoint, recorder) ->
+                    byEndpoint.computeIfAbsent(endpoint, k -> new ArrayList<>()).add(recorder));
+        }
+        errors.keySet().forEach(endpoint -> byEndpoint.computeIfAbsent(endpoint, k -> new ArrayList<>()));
+
+        Map<String, Stats> endpoints = new TreeMap<>();
+        byEndpoint.forEach((endpoint, endpointRecorders) -> {
+            Map<String, Long> errorCounts = new TreeMap<>();
+            errors.getOrDefault(endpoint, Map.of()).forEach((status, count) -> errorCounts.put(status, count.sum()));
+            endpoints.put(endpoint, new Stats(merge(endpointRecorders), errorCounts));
+        });
+        return new Result(endpoints, elapsed);
+    }
+
+    // Cumulative bytes allocated by the server, or -1 when the Prometheus endpoint isn't exposed
+    private static double allocatedBytes(HttpClient http, String metricsUrl) {
+        try {
+            HttpResponse<String> response = http.send(
+                    HttpRequest.newBuilder(URI.create(metricsUrl + "/actuator/prometheus")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = ALLOCATED.matcher(response.body());
+            return response.statusCode() == 200 && matcher.find() ? Double.parseDouble(matcher.group(1)) : -1;
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private static long[] merge(List<Recorder> recorders) {
+        int total = 0;
+        for (Recorder recorder : recorders) {
+            total += recorder.size;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Recorder recorder : recorders) {
+            System.arraycopy(recorder.samples, 0, latencies, offset, recorder.size);
+            offset += recorder.size;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static HttpRequest get(String url, Account account) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + account.token())
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest send(String method, String url, String token, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .method(method, HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    // Latencies of one client for one endpoint; only that client's thread writes it
+    private static final class Recorder {
+        long[] samples = new long[1024];
+        int size;
+
+        void add(long nanos) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+        }
+    }
+
+    private record Stats(long[] sortedLatencies, Map<String, Long> errorsByStatus) {
+
+        double throughput(long elapsedNanos) {
+            return sortedLatencies.length / (elapsedNanos / 1e9);
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))] / 1e6;
+        }
+
+        long errors() {
+            return errorsByStatus.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        // allocatedBytesPerRequest is negative when it can't be attributed to this endpoint and is then left out
+        String toJson(String endpoint, long elapsedNanos, double allocatedBytesPerRequest) {
+            return String.format(Locale.ROOT,
+                    "{\"endpoint\":\"%s\",\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,"
+                            + "\"p50Ms\":%.3f,\"p90Ms\":%.3f,\"p99Ms\":%.3f,\"maxMs\":%.3f%s}",
+                    endpoint, sortedLatencies.length, errors(), throughput(elapsedNanos),
+                    percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(100),
+                    allocatedBytesPerRequest < 0 ? ""
+                            : String.format(Locale.ROOT, ",\"allocatedBytesPerRequest\":%.0f", allocatedBytesPerRequest));
+        }
+    }
+
+    private record Result(Map<String, Stats> endpoints, long elapsedNanos) {
+
+        double throughput() {
+            return endpoints.values().stream().mapToDouble(stats -> stats.throughput(elapsedNanos)).sum();
+        }
+
+        // The allocation rate is server-wide; it is split per request only when a single endpoint was exercised
+        String toJson(String label, String workload, int clients, double allocationRate) {
+            double perRequest = allocationRate >= 0 && endpoints.size() == 1 && throughput() > 0
+                    ? allocationRate / throughput() : -1;
+            StringBuilder json = new StringBuilder(String.format(Locale.ROOT,
+                    "{\"label\":\"%s\",\"workload\":\"%s\",\"clients\":%d,\"throughput\":%.1f,"
+                            + "\"serverAllocatedBytesPerSecond\":%.0f,\"endpoints\":[",
+                    label, workload, clients, throughput(), allocationRate));
+            boolean first = true;
+            for (Map.Entry<String, Stats> entry : endpoints.entrySet()) {
+                if (!first) {
+                    json.append(',');
+                }
+                json.append(entry.getValue().toJson(entry.getKey(), elapsedNanos, perRequest));
+                first = false;
+            }
+            return json.append("]}").toString();
+        }
+    }
+}
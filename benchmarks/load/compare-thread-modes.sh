@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+# Runs TodoLoadTest against the packaged app twice, once on Tomcat's platform thread pool and once with
+# spring.threads.virtual.enabled=true, and prints both summaries. Needs Java 21 and a free port 8080.
+#
+#   benchmarks/load/compare-thread-modes.sh [clients] [duration]
+#
+# Extra app properties (e.g. a PostgreSQL datasource or a different Hikari pool size) can be passed in APP_ARGS.
+set -euo pipefail
+
+CLIENTS="${1:-1000}"
+DURATION="${2:-60s}"
+PORT=8080
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+OUT="$ROOT/target/load"
+mkdir -p "$OUT"
+
+(cd "$ROOT" && ./mvnw -q -DskipTests package)
+JAR="$(ls "$ROOT"/target/todo-api-*.jar | grep -v plain | head -n 1)"
+
+for mode in platform virtual; do
+  virtual=false
+  [ "$mode" = virtual ] && virtual=true
+
+  java -jar "$JAR" \
+    --server.port="$PORT" \
+    --spring.datasource.url="jdbc:h2:mem:load-$mode" \
+    --spring.threads.virtual.enabled="$virtual" \
+    --app.rate-limit.enabled=false \
+    ${APP_ARGS:-} > "$OUT/app-$mode.log" 2>&1 &
+  APP_PID=$!
+  trap 'kill $APP_PID 2>/dev/null || true' EXIT
+
+  healthy=false
+  for _ in $(seq 1 60); do
+    if curl -s -o /dev/null "http://localhost:$PORT/login"; then
+      healthy=true
+      break
+    fi
+    if ! kill -0 "$APP_PID" 2>/dev/null; then
+      break
+    fi
+    sleep 1
+  done
+  if [ "$healthy" != true ]; then
+    echo "App ($mode) did not start within 60s; log follows ($OUT/app-$mode.log):" >&2
+    cat "$OUT/app-$mode.log" >&2
+    exit 1
+  fi
+
+  java "$ROOT/benchmarks/load/TodoLoadTest.java" \
+    --base-url "http://localhost:$PORT" \
+    --clients "$CLIENTS" \
+    --duration "$DURATION" \
+    --label "$mode" \
+    --json "$OUT/$mode.json"
+
+  kill "$APP_PID"
+  wait "$APP_PID" 2>/dev/null || true
+done
+
+cat "$OUT/platform.json" "$OUT/virtual.json"
@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# End-to-end load suite: starts the packaged app on an in-memory H2 database (no network or external services
+# needed), then runs each TodoLoadTest workload against it and collects the JSON results in target/load.
+# Needs Java 21 and free ports 8080 (API) and 8081 (management).
+#
+#   benchmarks/load/run-workloads.sh [clients] [duration] [workloads...]
+#
+# Extra app properties (e.g. --spring.threads.virtual.enabled=true) can be passed in APP_ARGS.
+set -euo pipefail
+
+CLIENTS="${1:-200}"
+DURATION="${2:-30s}"
+shift $(( $# > 2 ? 2 : $# ))
+WORKLOADS=("$@")
+if [ ${#WORKLOADS[@]} -eq 0 ]; then
+  WORKLOADS=(create list list-deep update mixed)
+fi
+PORT=8080
+MANAGEMENT_PORT=8081
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+OUT="$ROOT/target/load"
+mkdir -p "$OUT"
+
+(cd "$ROOT" && ./mvnw -q -DskipTests package)
+JAR="$(ls "$ROOT"/target/todo-api-*.jar | grep -v plain | head -n 1)"
+
+java -jar "$JAR" \
+  --server.port="$PORT" \
+  --spring.datasource.url="jdbc:h2:mem:load-suite" \
+  --app.rate-limit.enabled=false \
+  --management.server.port="$MANAGEMENT_PORT" \
+  --management.endpoints.web.exposure.include=health,prometheus \
+  --logging.level.com.harsh.todo=WARN \
+  ${APP_ARGS:-} > "$OUT/app-workloads.log" 2>&1 &
+APP_PID=$!
+trap 'kill $APP_PID 2>/dev/null || true' EXIT
+
+HEALTHY=false
+for _ in $(seq 1 60); do
+  if curl -sf -o /dev/null "http://localhost:$MANAGEMENT_PORT/actuator/health"; then
+    HEALTHY=true
+    break
+  fi
+  if ! kill -0 "$APP_PID" 2>/dev/null; then
+    break
+  fi
+  sleep 1
+done
+if [ "$HEALTHY" != true ]; then
+  echo "App did not become healthy within 60s; log follows ($OUT/app-workloads.log):" >&2
+  cat "$OUT/app-workloads.log" >&2
+  exit 1
+fi
+
+: > "$OUT/workloads.json"
+for workload in "${WORKLOADS[@]}"; do
+  java "$ROOT/benchmarks/load/TodoLoadTest.java" \
+    --base-url "http://localhost:$PORT" \
+    --metrics-url "http://localhost:$MANAGEMENT_PORT" \
+    --workload "$workload" \
+    --clients "$CLIENTS" \
+    --duration "$DURATION" \
+    --users 20 \
+    --seed 2000 \
+    --json "$OUT/$workload.json"
+  cat "$OUT/$workload.json" >> "$OUT/workloads.json"
+done
+
+echo "Results: $OUT/workloads.json"
@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Times the todo access paths (offset page, count, keyset page, completed page and count) at 1M rows with
+# TodoAccessPathBenchmark, on in-memory H2 and, when PG_URL is set, on PostgreSQL too. Each run's JMH results are
+# copied to benchmarks/results/todos-access-paths-<db>.json so the latencies can be committed and diffed.
+# Needs Java 21; the PostgreSQL database should be a scratch one (the benchmark seeds and then deletes its rows).
+#
+#   PG_URL=jdbc:postgresql://localhost:5432/todo_bench PG_USER=postgres PG_PASSWORD=... benchmarks/sql/run-access-paths.sh
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+OUT="$ROOT/benchmarks/results"
+mkdir -p "$OUT"
+
+run() {
+  local db="$1"
+  (cd "$ROOT" && ./mvnw -q -P benchmarks test-compile exec:exec -Djmh.args="TodoAccessPathBenchmark")
+  cp "$ROOT/target/jmh-results.json" "$OUT/todos-access-paths-$db.json"
+  echo "Wrote $OUT/todos-access-paths-$db.json"
+}
+
+run h2
+
+if [ -n "${PG_URL:-}" ]; then
+  # The forked benchmark JVM inherits these, and Spring Boot binds them over the benchmark's H2 defaults
+  SPRING_DATASOURCE_URL="$PG_URL" \
+  SPRING_DATASOURCE_USERNAME="${PG_USER:-postgres}" \
+  SPRING_DATASOURCE_PASSWORD="${PG_PASSWORD:-}" \
+    run postgres
+fi
@@ -0,0 +1,41 @@
+-- Seeds 1M todos across 100 users and prints plans for the TodoRepository access paths.
+-- Run against a scratch database with: psql -d todo_bench -f todos-access-paths-postgres.sql
+-- Compare the output before and after applying V2__todos_access_path_indexes.sql.
+-- For timings that can be tracked across runs (and the same paths on H2), use run-access-paths.sh instead.
+
+INSERT INTO users (name, email, password, role)
+SELECT 'bench ' || g, 'bench' || g || '@example.com', 'x', 'USER'
+FROM generate_series(1, 100) g;
+
+INSERT INTO todos (title, description, completed, created_at, updated_at, user_id)
+SELECT 'todo ' || g,
+       'description ' || g,
+       g % 3 = 0,
+       now() - (g || ' seconds')::interval,
+       now() - (g || ' seconds')::interval,
+       (SELECT min(id) FROM users) + (g % 100)
+FROM generate_series(1, 1000000) g;
+
+ANALYZE todos;
+
+-- Offset page (findByUserId with PageRequest) and its count query
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM todos WHERE user_id = (SELECT min(id) FROM users)
+ORDER BY created_at DESC LIMIT 10 OFFSET 5000;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM todos WHERE user_id = (SELECT min(id) FROM users);
+
+-- Keyset page (findByUserIdAfter)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM todos WHERE user_id = (SELECT min(id) FROM users)
+  AND (created_at, id) < (now() - interval '5000 seconds', 500000)
+ORDER BY created_at DESC, id DESC LIMIT 11;
+
+-- Completed filter (findByUserAndCompletedOrderByCreatedAtDesc / countByUserAndCompleted)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM todos WHERE user_id = (SELECT min(id) FROM users) AND completed = true
+ORDER BY created_at DESC LIMIT 10;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM todos WHERE user_id = (SELECT min(id) FROM users) AND completed = true;
@@ -0,0 +1,81 @@
+package com.harsh.todo.todo_api.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// CPU cost of gzipping a GET /todos page the way ResponseCompression does, per wire format. Each benchmark also
+// reports rawBytes and gzippedBytes as secondary results, so the compression ratio lands in jmh-results.json
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private byte[] json;
+    private byte[] cbor;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        PaginatedTodoResponse page = TodoPageFixture.page(pageSize);
+        json = jsonMapper.writeValueAsBytes(page);
+        cbor = cborMapper.writeValueAsBytes(page);
+    }
+
+    // Assigned rather than accumulated, so the reported values are the sizes of one page
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sizes {
+        public long rawBytes;
+        public long gzippedBytes;
+    }
+
+    @Benchmark
+    public byte[] gzipJson(Sizes sizes) throws IOException {
+        return gzip(json, sizes);
+    }
+
+    @Benchmark
+    public byte[] gzipCbor(Sizes sizes) throws IOException {
+        return gzip(cbor, sizes);
+    }
+
+    private static byte[] gzip(byte[] body, Sizes sizes) throws IOException {
+        byte[] gzipped = gzip(body);
+        sizes.rawBytes = body.length;
+        sizes.gzippedBytes = gzipped.length;
+        return gzipped;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer, 8192)) {
+            out.write(body);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,52 @@
+package com.harsh.todo.todo_api.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// The GET /todos page shared by the serialization, wire-format and compression benchmarks. Titles and descriptions
+// are drawn from a fixed-seed word list with varying lengths (some todos have no description), so payload sizes and
+// gzip ratios are closer to real data than "todo N" text and stay identical from run to run.
+public final class TodoPageFixture {
+
+    private static final String[] WORDS = {
+            "buy", "milk", "call", "dentist", "review", "pull", "request", "fix", "flaky", "login", "test", "book",
+            "flights", "for", "the", "conference", "renew", "passport", "before", "march", "prepare", "quarterly",
+            "report", "water", "plants", "schedule", "team", "retro", "update", "dependencies", "clean", "garage",
+            "pay", "electricity", "bill", "draft", "blog", "post", "about", "caching", "pick", "up", "dry", "cleaning",
+            "migrate", "database", "to", "new", "cluster", "send", "invoice", "client", "backup", "photos", "and",
+            "with", "after", "lunch", "tomorrow", "weekly", "groceries", "refactor", "payment", "service", "gym",
+            "read", "chapter", "three", "of", "design", "doc", "reply", "emails", "order", "printer", "ink"
+    };
+
+    private TodoPageFixture() {
+    }
+
+    public static List<TodoResponse> todos(int size) {
+        Random random = new Random(42);
+        List<TodoResponse> todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String title = sentence(random, 2 + random.nextInt(5));
+            String description = random.nextInt(4) == 0 ? null : sentence(random, 3 + random.nextInt(22));
+            todos.add(new TodoResponse(100_000L + random.nextInt(900_000), title, description));
+        }
+        return todos;
+    }
+
+    public static PaginatedTodoResponse page(int size) {
+        return new PaginatedTodoResponse(todos(size), 1, size, 10_000);
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (i == 0) {
+                text.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            } else {
+                text.append(' ').append(word);
+            }
+        }
+        return text.toString();
+    }
+}
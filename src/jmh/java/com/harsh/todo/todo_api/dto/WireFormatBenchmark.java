@@ -0,0 +1,80 @@
+package com.harsh.todo.todo_api.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Encode/decode cost of a GET /todos page as JSON vs CBOR. The encode benchmarks also report the payload size as the
+// secondary result "bytes" (e.g. encodeCbor:bytes), so the size comparison lands in jmh-results.json with the timings
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+    private PaginatedTodoResponse page;
+    private byte[] json;
+    private byte[] cbor;
+
+    @Setup
+    public void setUp() throws Exception {
+        jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        cborMapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        page = TodoPageFixture.page(pageSize);
+        json = jsonMapper.writeValueAsBytes(page);
+        cbor = cborMapper.writeValueAsBytes(page);
+    }
+
+    // Assigned rather than accumulated, so the reported value is the size of one encoded page
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public long bytes;
+    }
+
+    @Benchmark
+    public byte[] encodeJson(Payload payload) throws Exception {
+        byte[] body = jsonMapper.writeValueAsBytes(page);
+        payload.bytes = body.length;
+        return body;
+    }
+
+    @Benchmark
+    public byte[] encodeCbor(Payload payload) throws Exception {
+        byte[] body = cborMapper.writeValueAsBytes(page);
+        payload.bytes = body.length;
+        return body;
+    }
+
+    @Benchmark
+    public JsonNode decodeJson() throws Exception {
+        return jsonMapper.readTree(json);
+    }
+
+    @Benchmark
+    public JsonNode decodeCbor() throws Exception {
+        return cborMapper.readTree(cbor);
+    }
+}
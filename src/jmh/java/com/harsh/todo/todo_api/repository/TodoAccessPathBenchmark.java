@@ -0,0 +1,155 @@
+package com.harsh.todo.todo_api.repository;
+
+import com.harsh.todo.todo_api.TodoApiApplication;
+import com.harsh.todo.todo_api.dto.TodoResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// The access paths from benchmarks/sql/todos-access-paths-postgres.sql, timed through the real repository queries
+// at the same scale: 1M todos spread over 100 users, read as one of those users. Runs on in-memory H2 by default;
+// benchmarks/sql/run-access-paths.sh also points it at PostgreSQL and keeps both result files under benchmarks/results.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoAccessPathBenchmark {
+
+    private static final int USERS = 100;
+    private static final int TODOS = 1_000_000;
+    private static final int INSERT_BATCH = 10_000;
+    private static final int PAGE_SIZE = 10;
+    private static final int DEEP_OFFSET = 5_000;
+
+    private ConfigurableApplicationContext context;
+    private TodoRepository todoRepository;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private String emailPrefix;
+    private Long userId;
+    private TodoFilter completedFilter;
+    private PageRequest offsetPage;
+    private PageRequest firstPage;
+    private TodoRow keysetCursor;
+
+    @Setup
+    public void setUp() {
+        // SPRING_DATASOURCE_* environment variables (see run-access-paths.sh) override these defaults
+        context = new SpringApplicationBuilder(TodoApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:access-path-bench;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=validate",
+                        "logging.level.root=WARN")
+                .run();
+        todoRepository = context.getBean(TodoRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        emailPrefix = "access-path-" + System.currentTimeMillis() + "-";
+        List<Long> userIds = seedUsers();
+        seedTodos(userIds);
+        userId = userIds.get(0);
+
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "createdAt");
+        completedFilter = new TodoFilter(true, null, null, null, null, null);
+        offsetPage = PageRequest.of(DEEP_OFFSET / PAGE_SIZE, PAGE_SIZE, newestFirst);
+        firstPage = PageRequest.of(0, PAGE_SIZE, newestFirst);
+        // Seek from the same depth the offset page skips to
+        keysetCursor = readOnlyTransaction.execute(status ->
+                todoRepository.searchRows(userId, TodoFilter.NONE, null, null, DEEP_OFFSET).get(DEEP_OFFSET - 1));
+    }
+
+    @TearDown
+    public void tearDown() {
+        // Only matters when pointed at a persistent database
+        jdbcTemplate.update("DELETE FROM todos WHERE user_id IN (SELECT id FROM users WHERE email LIKE ?)", emailPrefix + "%");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE ?", emailPrefix + "%");
+        context.close();
+    }
+
+    // Offset page (searchResponseSlice with PageRequest) at OFFSET 5000
+    @Benchmark
+    public Slice<TodoResponse> offsetPage() {
+        return readOnlyTransaction.execute(status ->
+                todoRepository.searchResponseSlice(userId, TodoFilter.NONE, offsetPage));
+    }
+
+    @Benchmark
+    public long count() {
+        return readOnlyTransaction.execute(status -> todoRepository.countByUserId(userId));
+    }
+
+    // Keyset page (searchRows) from the same depth, one extra row for hasNext
+    @Benchmark
+    public List<TodoRow> keysetPage() {
+        return readOnlyTransaction.execute(status -> todoRepository.searchRows(userId, TodoFilter.NONE,
+                keysetCursor.createdAt(), keysetCursor.id(), PAGE_SIZE + 1));
+    }
+
+    @Benchmark
+    public Slice<TodoResponse> completedPage() {
+        return readOnlyTransaction.execute(status ->
+                todoRepository.searchResponseSlice(userId, completedFilter, firstPage));
+    }
+
+    @Benchmark
+    public long completedCount() {
+        return readOnlyTransaction.execute(status -> todoRepository.countMatching(userId, completedFilter));
+    }
+
+    private List<Long> seedUsers() {
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email, password, role) VALUES (?, ?, 'x', 'USER')",
+                IntStream.rangeClosed(1, USERS)
+                        .mapToObj(i -> new Object[]{"bench " + i, emailPrefix + i + "@example.com"})
+                        .toList());
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE email LIKE ? ORDER BY id", Long.class, emailPrefix + "%");
+    }
+
+    // Same shape as the PostgreSQL script: one second apart, every third todo completed, users interleaved
+    private void seedTodos(List<Long> userIds) {
+        LocalDateTime now = LocalDateTime.now();
+        String insert = "INSERT INTO todos (title, description, completed, created_at, updated_at, user_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+        for (int start = 1; start <= TODOS; start += INSERT_BATCH) {
+            List<Object[]> rows = new ArrayList<>(INSERT_BATCH);
+            for (int g = start; g < start + INSERT_BATCH && g <= TODOS; g++) {
+                Timestamp at = Timestamp.valueOf(now.minusSeconds(g));
+                rows.add(new Object[]{"todo " + g, "description " + g, g % 3 == 0, at, at, userIds.get(g % USERS)});
+            }
+            jdbcTemplate.batchUpdate(insert, rows);
+        }
+        jdbcTemplate.update("UPDATE users SET todo_count = (SELECT count(*) FROM todos t WHERE t.user_id = users.id) " +
+                "WHERE email LIKE ?", emailPrefix + "%");
+        // Fresh statistics, as the SQL script's ANALYZE; H2 spells it differently
+        boolean postgres = context.getEnvironment().getProperty("spring.datasource.url", "").startsWith("jdbc:postgresql:");
+        jdbcTemplate.execute(postgres ? "ANALYZE todos" : "ANALYZE TABLE todos");
+    }
+}
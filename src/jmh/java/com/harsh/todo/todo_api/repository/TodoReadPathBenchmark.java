@@ -0,0 +1,100 @@
+package com.harsh.todo.todo_api.repository;
+
+import com.harsh.todo.todo_api.TodoApiApplication;
+import com.harsh.todo.todo_api.dto.TodoResponse;
+import com.harsh.todo.todo_api.model.Todo;
+import com.harsh.todo.todo_api.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// One list page read the old way (Todo entities, then mapped) versus the DTO projection used since the
+// read paths moved to constructor expressions. Runs the real repositories against in-memory H2; use -prof gc
+// to compare allocation per page.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoReadPathBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private TodoRepository todoRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private User user;
+    private PageRequest pageRequest;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TodoApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:read-path-bench;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=validate",
+                        "logging.level.root=WARN")
+                .run();
+        todoRepository = context.getBean(TodoRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        User newUser = new User();
+        newUser.setName("bench");
+        newUser.setEmail("bench-" + pageSize + "@example.com");
+        newUser.setPassword("x");
+        user = userRepository.save(newUser);
+
+        List<Todo> todos = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            Todo todo = new Todo();
+            todo.setTitle("todo " + i);
+            todo.setDescription("description of todo " + i);
+            todo.setUser(user);
+            todos.add(todo);
+        }
+        todoRepository.saveAll(todos);
+        pageRequest = PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TodoResponse> entityPage() {
+        return readOnlyTransaction.execute(status -> todoRepository.findByUser(user, pageRequest).stream()
+                .map(todo -> new TodoResponse(todo.getId(), todo.getTitle(), todo.getDescription()))
+                .toList());
+    }
+
+    @Benchmark
+    public List<TodoResponse> projectionPage() {
+        return readOnlyTransaction.execute(status -> todoRepository.findResponseSliceByUserId(user.getId(), pageRequest)
+                .getContent());
+    }
+}
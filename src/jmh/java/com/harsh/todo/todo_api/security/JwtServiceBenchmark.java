@@ -0,0 +1,84 @@
+package com.harsh.todo.todo_api.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Token issue and the per-request verify path of JwtAuthFilter: the original flow (a fresh parser and three
+// full parses per request), a single parse, and the claims cache hit that requests normally take now.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    // Same literal as JwtService, for the legacy flow that built its own parser
+    private static final String SECRET_KEY = "your_super_secret_and_long_jwt_key_that_is_at_least_256_bits";
+
+    private JwtService cachedJwtService;
+    private JwtService uncachedJwtService;
+    private AuthenticatedUser user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedJwtService = new JwtService(10_000);
+        uncachedJwtService = new JwtService(0);
+        user = new AuthenticatedUser(42L, "bench@example.com", "x", "USER");
+        token = cachedJwtService.generateToken(user);
+        cachedJwtService.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedJwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean verifyLegacyThreeParses() {
+        String username = legacyClaims(token).getSubject();
+        boolean sameUser = legacyClaims(token).getSubject().equals(username);
+        boolean expired = legacyClaims(token).getExpiration().before(new Date());
+        return sameUser && !expired;
+    }
+
+    @Benchmark
+    public boolean verifySingleParse() {
+        Claims claims = uncachedJwtService.extractAllClaims(token);
+        return uncachedJwtService.isTokenValid(claims, user);
+    }
+
+    @Benchmark
+    public boolean verifyCached() {
+        Claims claims = cachedJwtService.extractAllClaims(token);
+        return cachedJwtService.isTokenValid(claims, user);
+    }
+
+    @Benchmark
+    public String extractUsernameCached() {
+        return cachedJwtService.extractUsername(token);
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
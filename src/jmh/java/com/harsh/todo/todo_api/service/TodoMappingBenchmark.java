@@ -0,0 +1,65 @@
+package com.harsh.todo.todo_api.service;
+
+import com.harsh.todo.todo_api.dto.TodoPageFixture;
+import com.harsh.todo.todo_api.dto.TodoResponse;
+import com.harsh.todo.todo_api.model.Todo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// TodoService.convertToResponse over a whole page, as done by the write paths; run with -prof gc for allocations
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoMappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private List<Todo> todos;
+
+    @Setup
+    public void setUp() {
+        todos = new ArrayList<>(pageSize);
+        LocalDateTime now = LocalDateTime.now();
+        for (TodoResponse source : TodoPageFixture.todos(pageSize)) {
+            Todo todo = new Todo();
+            todo.setId(source.getId());
+            todo.setTitle(source.getTitle());
+            todo.setDescription(source.getDescription());
+            todo.setCreatedAt(now);
+            todo.setUpdatedAt(now);
+            todos.add(todo);
+        }
+    }
+
+    @Benchmark
+    public List<TodoResponse> convertToResponse() {
+        List<TodoResponse> responses = new ArrayList<>(todos.size());
+        for (Todo todo : todos) {
+            responses.add(TodoService.convertToResponse(todo));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<TodoResponse> convertToResponseStream() {
+        return todos.stream().map(TodoService::convertToResponse).toList();
+    }
+}
@@ -0,0 +1,23 @@
+package com.harsh.todo.todo_api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaConfig {
+
+    @Value("${app.jpa.batch-size:50}")
+    private int batchSize;
+
+    // Group inserts/updates into JDBC batches; relies on Todo using a pooled sequence rather than IDENTITY
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer() {
+        return properties -> {
+            properties.put("hibernate.jdbc.batch_size", batchSize);
+            properties.put("hibernate.order_inserts", true);
+            properties.put("hibernate.order_updates", true);
+        };
+    }
+}
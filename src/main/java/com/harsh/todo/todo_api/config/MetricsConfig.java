@@ -0,0 +1,16 @@
+package com.harsh.todo.todo_api.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Repository calls (spring.data.repository.invocations), HikariCP pools and HTTP requests are instrumented by
+// Spring Boot; this enables @Timed for the service layer. Caches and pools bind their own meters (MeterBinder).
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,37 @@
+package com.harsh.todo.todo_api.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.harsh.todo.todo_api.controller.ResponseCompression;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@Configuration
+public class WebConfig {
+
+    // CBOR for clients that ask for it with Accept: application/cbor (and for application/cbor request bodies).
+    // Built from Boot's mapper builder so dates and other settings match the JSON output; Boot puts it in place of
+    // the default CBOR converter, after JSON, so JSON stays the default for */* and missing Accept headers.
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    // Tomcat gzips the other responses (the OpenAPI document, auth and error bodies) with the same threshold and
+    // MIME allow-list that ResponseCompression applies to GET /todos
+    @Bean
+    public WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> compressionCustomizer(
+            ResponseCompression responseCompression) {
+        return factory -> {
+            Compression compression = new Compression();
+            compression.setEnabled(responseCompression.isEnabled());
+            compression.setMinResponseSize(responseCompression.getMinResponseSize());
+            compression.setMimeTypes(responseCompression.getMimeTypes());
+            factory.setCompression(compression);
+        };
+    }
+}
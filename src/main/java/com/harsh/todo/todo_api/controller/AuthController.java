@@ -7,11 +7,13 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @Tag(name = "Authentication", description = "User registration and login")
@@ -27,6 +29,8 @@ public class AuthController {
         try {
             String token = userService.registerUser(userDTO);
             return ResponseEntity.ok(Map.of("token", token));
+        } catch (RejectedExecutionException e) {
+            return passwordHashingBusy();
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", e.getMessage()));
         }
@@ -39,8 +43,17 @@ public class AuthController {
         try {
             String token = userService.loginUser(request.getEmail(), request.getPassword());
             return ResponseEntity.ok(Map.of("token", token));
+        } catch (RejectedExecutionException e) {
+            return passwordHashingBusy();
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Unauthorized"));
         }
     }
-}
\ No newline at end of file
+
+    // The password hashing pool is saturated; shed load instead of queueing behind it
+    private ResponseEntity<?> passwordHashingBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("message", "Too many authentication requests, please retry"));
+    }
+}
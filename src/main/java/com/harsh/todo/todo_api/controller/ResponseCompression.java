@@ -0,0 +1,282 @@
+package com.harsh.todo.todo_api.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Gzip for the bodies the app writes itself: GET /todos pages (cached and streamed) and the export. Tomcat's own
+// compression (configured from the same properties in WebConfig) skips responses carrying a strong ETag, so cached
+// pages are compressed here once per cache entry and streamed bodies on the fly. The http.compression meters cover
+// these bodies only, tagged source=cached|streamed; responses Tomcat compresses are not counted.
+@Component
+public class ResponseCompression implements MeterBinder {
+
+    private final boolean enabled;
+    private final DataSize minResponseSize;
+    private final List<MediaType> mimeTypes;
+
+    private Meters cachedMeters;
+    private Meters streamedMeters;
+
+    public ResponseCompression(@Value("${app.compression.enabled:true}") boolean enabled,
+                               @Value("${app.compression.min-response-size:2KB}") DataSize minResponseSize,
+                               @Value("${app.compression.mime-types:application/json,application/cbor,"
+                                       + "application/x-ndjson,text/csv,text/html,text/css,text/plain,"
+                                       + "application/javascript}") String[] mimeTypes) {
+        this.enabled = enabled;
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = MediaType.parseMediaTypes(List.of(mimeTypes));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public DataSize getMinResponseSize() {
+        return minResponseSize;
+    }
+
+    public String[] getMimeTypes() {
+        return mimeTypes.stream().map(MediaType::toString).toArray(String[]::new);
+    }
+
+    // Whether a body of this type may be compressed for a client sending this Accept-Encoding header
+    public boolean applies(MediaType contentType, String acceptEncoding) {
+        return acceptsGzip(acceptEncoding) && compressible(contentType);
+    }
+
+    public boolean compressible(MediaType contentType) {
+        return enabled && mimeTypes.stream().anyMatch(type -> type.includes(contentType));
+    }
+
+    // gzip (or x-gzip) with a non-zero q-value, or * when gzip is not listed; "gzip;q=0" refuses it
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = quality(parts) > 0;
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                return accepted;
+            }
+            if (coding.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return wildcard != null && wildcard;
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    // Gzipped copy of the body, or null when it is under the size threshold or does not shrink
+    public byte[] gzip(byte[] body) {
+        if (body.length < minResponseSize.toBytes()) {
+            return null;
+        }
+        long start = System.nanoTime();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (OutputStream out = new GZIPOutputStream(buffer, 8192)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] compressed = buffer.toByteArray();
+        if (cachedMeters != null) {
+            cachedMeters.record(System.nanoTime() - start, body.length, compressed.length);
+        }
+        return compressed.length < body.length ? compressed : null;
+    }
+
+    // Gzipped body stream for a streamed response. The first min-response-size bytes are held back: a body that ends
+    // within them is sent uncompressed, and Content-Encoding is only set once compression starts, so an error raised
+    // before then can still be answered uncompressed. Closing the stream writes the gzip trailer.
+    public OutputStream gzip(HttpServletResponse response) {
+        return new ThresholdGzipStream(response, (int) Math.min(minResponseSize.toBytes(), 1 << 20), streamedMeters);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cachedMeters = new Meters(registry, "cached");
+        streamedMeters = new Meters(registry, "streamed");
+    }
+
+    private static final class Meters {
+
+        private final Timer compressTimer;
+        private final Counter bytesIn;
+        private final Counter bytesOut;
+
+        Meters(MeterRegistry registry, String source) {
+            compressTimer = Timer.builder("http.compression")
+                    .description("Time spent gzipping bodies the app compresses itself (not Tomcat's)")
+                    .tag("source", source)
+                    .register(registry);
+            bytesIn = Counter.builder("http.compression.input")
+                    .description("Bytes handed to the compressor")
+                    .baseUnit("bytes")
+                    .tag("source", source)
+                    .register(registry);
+            bytesOut = Counter.builder("http.compression.output")
+                    .description("Bytes the compressor produced")
+                    .baseUnit("bytes")
+                    .tag("source", source)
+                    .register(registry);
+        }
+
+        void record(long nanos, long in, long out) {
+            compressTimer.record(nanos, TimeUnit.NANOSECONDS);
+            bytesIn.increment(in);
+            bytesOut.increment(out);
+        }
+    }
+
+    private static final class ThresholdGzipStream extends OutputStream {
+
+        private final HttpServletResponse response;
+        private final Meters meters;
+        private byte[] pending;
+        private int pendingLength;
+        private CountingStream sink;
+        private GZIPOutputStream out;
+        private long bytesIn;
+        private long compressNanos;
+        private boolean closed;
+
+        ThresholdGzipStream(HttpServletResponse response, int threshold, Meters meters) {
+            this.response = response;
+            this.meters = meters;
+            this.pending = new byte[Math.max(threshold, 1)];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (out == null && pendingLength + len < pending.length) {
+                System.arraycopy(b, off, pending, pendingLength, len);
+                pendingLength += len;
+                return;
+            }
+            if (out == null) {
+                open();
+            }
+            compress(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (out != null) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (out == null) {
+                // The whole body fit under the threshold: send it as is
+                OutputStream raw = response.getOutputStream();
+                raw.write(pending, 0, pendingLength);
+                raw.close();
+                pending = null;
+                return;
+            }
+            long start = System.nanoTime();
+            out.finish();
+            compressNanos += System.nanoTime() - start;
+            out.close();
+            if (meters != null) {
+                // Time blocked writing to the client is not compression work
+                meters.record(Math.max(0, compressNanos - sink.writeNanos), bytesIn, sink.count);
+            }
+        }
+
+        private void open() throws IOException {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            sink = new CountingStream(response.getOutputStream());
+            out = new GZIPOutputStream(sink, 64 * 1024);
+            byte[] held = pending;
+            pending = null;
+            compress(held, 0, pendingLength);
+        }
+
+        private void compress(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            out.write(b, off, len);
+            compressNanos += System.nanoTime() - start;
+            bytesIn += len;
+        }
+    }
+
+    // Counts what the compressor emits and how long writing it to the response took
+    private static final class CountingStream extends FilterOutputStream {
+
+        private long count;
+        private long writeNanos;
+
+        CountingStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            long start = System.nanoTime();
+            out.write(b);
+            writeNanos += System.nanoTime() - start;
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            out.write(b, off, len);
+            writeNanos += System.nanoTime() - start;
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            long start = System.nanoTime();
+            out.flush();
+            writeNanos += System.nanoTime() - start;
+        }
+    }
+}
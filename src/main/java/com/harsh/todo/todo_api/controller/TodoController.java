@@ -1,16 +1,39 @@
 package com.harsh.todo.todo_api.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harsh.todo.todo_api.dto.CursorTodoResponse;
+import com.harsh.todo.todo_api.dto.TodoBatchUpdateDTO;
+import com.harsh.todo.todo_api.dto.TodoChangesResponse;
 import com.harsh.todo.todo_api.dto.TodoDTO;
+import com.harsh.todo.todo_api.dto.TodoPatchDTO;
 import com.harsh.todo.todo_api.dto.TodoResponse;
 import com.harsh.todo.todo_api.dto.PaginatedTodoResponse;
+import com.harsh.todo.todo_api.dto.SlicedTodoResponse;
+import com.harsh.todo.todo_api.repository.TodoFilter;
+import com.harsh.todo.todo_api.repository.VersionedTodo;
 import com.harsh.todo.todo_api.service.TodoService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -19,6 +42,28 @@ public class TodoController {
     @Autowired
     private TodoService todoService;
 
+    @Autowired
+    private TodoListCache todoListCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private ResponseCompression compression;
+
+    // Offset pages at least this large are streamed from a JDBC cursor instead of being built and cached
+    @Value("${app.todos.streaming.min-limit:200}")
+    private int streamingMinLimit;
+
+    @Value("${app.todos.sync.max-limit:5000}")
+    private int maxChangesLimit;
+
+    @Value("${app.todos.max-limit:10000}")
+    private int maxLimit;
+
     // Create a new todo
     @PostMapping("/todos")
     public ResponseEntity<?> createTodo(@RequestBody TodoDTO todoDTO) {
@@ -37,34 +82,156 @@ public class TodoController {
         }
     }
 
-    // Get all todos with pagination
+    // Get all todos with pagination; passing "after" (empty for the first page) switches to cursor mode,
+    // and total=false returns only a hasNext flag instead of counting every todo.
+    // completed, the created/updated ranges (ISO date-times, upper bound exclusive) and q filter on the server;
+    // q matches todos where each of its words starts a word of the title or description, on H2 and PostgreSQL alike.
     @GetMapping("/todos")
     public ResponseEntity<?> getAllTodos(
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "true") boolean total,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedTo,
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            ServletWebRequest webRequest) throws IOException {
+        if (page < 1 || limit < 1 || limit > maxLimit) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "page must be at least 1 and limit between 1 and " + maxLimit);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        try {
+            // Revalidate against the caller's list version before running any list query; 304 on match
+            String listVersion = todoService.getTodoListVersion();
+            String queryString = webRequest.getRequest().getQueryString();
+            TodoWireFormat format = TodoWireFormat.negotiate(webRequest.getHeader(HttpHeaders.ACCEPT));
+            boolean gzip = compression.applies(format.mediaType(), webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            webRequest.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+            String eTag = TodoETags.forList(listVersion, queryString, format, gzip);
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+
+            TodoFilter filter = new TodoFilter(completed, createdFrom, createdTo, updatedFrom, updatedTo, q);
+            if (after == null && limit >= streamingMinLimit) {
+                streamTodosPage(webRequest, format, gzip, page, limit, total, filter, sort, direction);
+                return null;
+            }
+
+            // Hot pages are served from the serialized response cache; only misses query and serialize
+            TodoListCache.CachedBody body = todoListCache.get(listVersion + "/" + format, queryString, format.mediaType(), () -> {
+                if (after != null) {
+                    CursorTodoResponse response = todoService.getAllTodosAfter(after, limit, filter);
+                    return serialize(format, response);
+                }
+                if (!total) {
+                    SlicedTodoResponse response = todoService.getTodosSlice(page, limit, filter, sort, direction);
+                    return serialize(format, response);
+                }
+                PaginatedTodoResponse response = todoService.getAllTodosPaginated(page, limit, filter, sort, direction);
+                return serialize(format, response);
+            });
+            byte[] gzipped = gzip ? body.gzipped() : null;
+            if (gzipped != null) {
+                return ResponseEntity.ok().contentType(format.mediaType())
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .body(gzipped);
+            }
+            return ResponseEntity.ok().contentType(format.mediaType()).body(body.body());
+        } catch (RuntimeException e) {
+            HttpServletResponse response = webRequest.getResponse();
+            if (response.isCommitted()) {
+                // Mid-stream failure: the 200 and part of the page are already sent, so all we can do is cut it short
+                throw e;
+            }
+            // Drop whatever a started stream buffered (including its Content-Encoding) before answering with an error
+            response.reset();
+            if (e.getMessage() != null && e.getMessage().contains("Invalid cursor")) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "Invalid cursor");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+            if (e.getMessage() != null && e.getMessage().startsWith("Invalid sort")) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", e.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Unauthorized");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        }
+    }
+
+    // Delta sync: todos created or updated, and ids deleted, since the watermark from the previous call.
+    // Omit "since" for the initial full sync; 410 means the watermark is too old and the client must start over.
+    @GetMapping("/todos/changes")
+    public ResponseEntity<?> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        if (limit < 1 || limit > maxChangesLimit) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "limit must be between 1 and " + maxChangesLimit);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
         try {
-            PaginatedTodoResponse response = todoService.getAllTodosPaginated(page, limit);
-            return ResponseEntity.ok(response);
+            TodoChangesResponse response = todoService.getChangesSince(since, limit);
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(response);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
+            if (e.getMessage() != null && e.getMessage().contains("Invalid cursor")) {
+                error.put("message", "Invalid watermark");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+            if (e.getMessage() != null && e.getMessage().contains("Resync required")) {
+                error.put("message", "Watermark expired, resync required");
+                return ResponseEntity.status(HttpStatus.GONE).body(error);
+            }
             error.put("message", "Unauthorized");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
         }
     }
 
+    // Server-Sent Events: "created", "updated" and "deleted" events carry the affected ids once committed;
+    // "imported" carries no ids, so clients catch up through /todos/changes.
+    // A "resync" event means events were dropped for a slow reader; catch up via /todos/changes.
+    @GetMapping(value = "/todos/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTodos() {
+        try {
+            return ResponseEntity.ok(todoService.streamChanges());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
     // Get a specific todo by ID
     @GetMapping("/todos/{id}")
-    public ResponseEntity<?> getTodoById(@PathVariable Long id) {
+    public ResponseEntity<?> getTodoById(@PathVariable Long id, ServletWebRequest webRequest) {
         try {
-            TodoResponse todo = todoService.getTodoById(id);
-            return ResponseEntity.ok(todo);
+            VersionedTodo todo = todoService.getVersionedTodo(id);
+            long lastModified = todo.updatedAt() != null
+                    ? todo.updatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                    : -1;
+            // The converters pick JSON or CBOR from Accept; tag and vary by that choice like GET /todos does
+            TodoWireFormat format = TodoWireFormat.negotiate(webRequest.getHeader(HttpHeaders.ACCEPT));
+            webRequest.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            if (webRequest.checkNotModified(TodoETags.forTodo(todo.id(), todo.version(), format), lastModified)) {
+                return null;
+            }
+            return ResponseEntity.ok(todo.toResponse());
         } catch (RuntimeException e) {
-            if (e.getMessage().contains("not found")) {
+            String message = e.getMessage() != null ? e.getMessage() : "";
+            if (message.contains("not found")) {
                 Map<String, String> error = new HashMap<>();
                 error.put("message", "Todo not found");
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
             }
-            if (e.getMessage().contains("access denied")) {
+            if (message.contains("access denied")) {
                 Map<String, String> error = new HashMap<>();
                 error.put("message", "Forbidden");
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
@@ -75,13 +242,19 @@ public class TodoController {
         }
     }
 
-    // Update a todo
+    // Update a todo; an If-Match ETag turns it into a conditional update (412 if the todo changed)
     @PutMapping("/todos/{id}")
-    public ResponseEntity<?> updateTodo(@PathVariable Long id, @RequestBody TodoDTO todoDTO) {
+    public ResponseEntity<?> updateTodo(@PathVariable Long id, @RequestBody TodoDTO todoDTO,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
-            TodoResponse todo = todoService.updateTodo(id, todoDTO);
-            return ResponseEntity.ok(todo);
+            Long expectedVersion = TodoETags.expectedVersion(ifMatch, id, () -> currentVersion(id));
+            TodoResponse todo = todoService.updateTodo(id, todoDTO, expectedVersion);
+            return withNewETag(ResponseEntity.ok(), id, expectedVersion, accept).body(todo);
         } catch (RuntimeException e) {
+            if (e.getMessage().contains("version conflict")) {
+                return preconditionFailed();
+            }
             if (e.getMessage().contains("not found")) {
                 Map<String, String> error = new HashMap<>();
                 error.put("message", "Todo not found");
@@ -98,13 +271,47 @@ public class TodoController {
         }
     }
 
+    // Partially update a todo; only the fields present in the body are written, and "description": null clears it
+    @PatchMapping("/todos/{id}")
+    public ResponseEntity<?> patchTodo(@PathVariable Long id, @RequestBody TodoPatchDTO patch,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                       @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        try {
+            Long expectedVersion = TodoETags.expectedVersion(ifMatch, id, () -> currentVersion(id));
+            TodoResponse todo = todoService.patchTodo(id, patch, expectedVersion);
+            return withNewETag(ResponseEntity.ok(), id, expectedVersion, accept).body(todo);
+        } catch (RuntimeException e) {
+            String message = e.getMessage() != null ? e.getMessage() : "";
+            if (message.contains("version conflict")) {
+                return preconditionFailed();
+            }
+            if (message.startsWith("Patch must")) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", message);
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+            if (message.contains("not found")) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "Todo not found");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+            }
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Unauthorized");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        }
+    }
+
     // Delete a specific todo - Return 204 No Content
     @DeleteMapping("/todos/{id}")
-    public ResponseEntity<?> deleteTodo(@PathVariable Long id) {
+    public ResponseEntity<?> deleteTodo(@PathVariable Long id,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            todoService.deleteTodo(id);
+            todoService.deleteTodo(id, TodoETags.expectedVersion(ifMatch, id, () -> currentVersion(id)));
             return ResponseEntity.noContent().build(); // 204 No Content
         } catch (RuntimeException e) {
+            if (e.getMessage().contains("version conflict")) {
+                return preconditionFailed();
+            }
             if (e.getMessage().contains("not found")) {
                 Map<String, String> error = new HashMap<>();
                 error.put("message", "Todo not found");
@@ -120,4 +327,107 @@ public class TodoController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
         }
     }
+
+    // Create many todos in one transaction
+    @PostMapping("/todos/batch")
+    public ResponseEntity<?> createTodos(@RequestBody List<TodoDTO> todoDTOs) {
+        try {
+            List<TodoResponse> todos = todoService.createTodos(todoDTOs);
+            return ResponseEntity.ok(todos);
+        } catch (RuntimeException e) {
+            return batchError(e);
+        }
+    }
+
+    // Update many todos in one transaction; fails as a whole if any id is missing
+    @PatchMapping("/todos/batch")
+    public ResponseEntity<?> updateTodos(@RequestBody List<TodoBatchUpdateDTO> updates) {
+        try {
+            List<TodoResponse> todos = todoService.updateTodos(updates);
+            return ResponseEntity.ok(todos);
+        } catch (RuntimeException e) {
+            return batchError(e);
+        }
+    }
+
+    // Delete many todos by id - Return 204 No Content
+    @DeleteMapping("/todos/batch")
+    public ResponseEntity<?> deleteTodos(@RequestBody List<Long> ids) {
+        try {
+            todoService.deleteTodos(ids);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return batchError(e);
+        }
+    }
+
+    // Only asked when If-Match lists several versions of the todo
+    private Long currentVersion(Long id) {
+        return todoService.getVersionedTodo(id).version();
+    }
+
+    // After a conditional write the new version is known without another read; the tag names the format sent back
+    private ResponseEntity.BodyBuilder withNewETag(ResponseEntity.BodyBuilder builder, Long id, Long expectedVersion,
+                                                   String accept) {
+        builder.varyBy(HttpHeaders.ACCEPT);
+        if (expectedVersion == null) {
+            return builder;
+        }
+        return builder.eTag(TodoETags.forTodo(id, expectedVersion + 1, TodoWireFormat.negotiate(accept)));
+    }
+
+    // Rows are flushed to the client as the generator's buffer fills, so only failures before that point (bad sort or
+    // filters, the count, the first rows) can still become an error status; later ones abort the response
+    private void streamTodosPage(ServletWebRequest webRequest, TodoWireFormat format, boolean gzip, int page, int limit,
+                                 boolean total, TodoFilter filter, String sort, String direction) throws IOException {
+        HttpServletResponse response = webRequest.getResponse();
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(format.mediaType().toString());
+        OutputStream out = gzip ? compression.gzip(response) : response.getOutputStream();
+        TodoPageStreamWriter writer = new TodoPageStreamWriter(mapperFor(format), out);
+        TodoService.StreamedPage streamed = todoService.streamTodosPage(page, limit, filter, sort, direction, total, writer);
+        if (total) {
+            writer.endPaginated(page, limit, streamed.total());
+        } else {
+            writer.endSliced(page, limit, streamed.hasNext());
+        }
+    }
+
+    private ObjectMapper mapperFor(TodoWireFormat format) {
+        return format == TodoWireFormat.CBOR ? cborConverter.getObjectMapper() : objectMapper;
+    }
+
+    private byte[] serialize(TodoWireFormat format, Object response) {
+        try {
+            return mapperFor(format).writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ResponseEntity<?> preconditionFailed() {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", "Todo was modified by another request");
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
+    }
+
+    private ResponseEntity<?> batchError(RuntimeException e) {
+        Map<String, String> error = new HashMap<>();
+        if (e.getMessage() != null && e.getMessage().contains("not found")) {
+            error.put("message", "Todo not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+        if (e.getMessage() != null
+                && (e.getMessage().startsWith("Batch must") || e.getMessage().startsWith("Invalid batch item"))) {
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        if (e.getMessage() != null && (e.getMessage().contains("Unauthorized") || e.getMessage().contains("User not found"))) {
+            error.put("message", "Unauthorized");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        }
+        // Anything else the batch trips over (e.g. a constraint violation) is a problem with the submitted todos
+        error.put("message", "Invalid batch");
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,166 @@
+package com.harsh.todo.todo_api.controller;
+
+import com.harsh.todo.todo_api.dto.TodoDTO;
+import com.harsh.todo.todo_api.dto.TodoSyncItem;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+// RFC 4180 CSV for todo export/import. Import needs a header row naming a "title" column; "description" and
+// "completed" are optional and any other columns (such as the exported id and timestamps) are ignored.
+final class TodoCsv {
+
+    static final String HEADER = "id,title,description,completed,createdAt,updatedAt";
+
+    // Longest record accepted on import, in characters; a line that never ends can't grow a buffer without bound
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private TodoCsv() {
+    }
+
+    static void writeRow(Writer out, TodoSyncItem todo) throws IOException {
+        out.write(String.valueOf(todo.getId()));
+        out.write(',');
+        writeField(out, todo.getTitle());
+        out.write(',');
+        writeField(out, todo.getDescription());
+        out.write(',');
+        out.write(Boolean.toString(todo.isCompleted()));
+        out.write(',');
+        writeField(out, todo.getCreatedAt() != null ? todo.getCreatedAt().toString() : null);
+        out.write(',');
+        writeField(out, todo.getUpdatedAt() != null ? todo.getUpdatedAt().toString() : null);
+        out.write("\r\n");
+    }
+
+    private static void writeField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    // Lazily parses one record per next(), so the upload is never held in memory
+    static Iterator<TodoDTO> read(Reader reader) throws IOException {
+        PushbackReader in = new PushbackReader(reader, 1);
+        List<String> header = readRecord(in);
+        if (header == null) {
+            return List.<TodoDTO>of().iterator();
+        }
+        // Spreadsheet exports often start with a byte order mark and vary the header case
+        header.replaceAll(name -> name.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT));
+        int title = header.indexOf("title");
+        int description = header.indexOf("description");
+        int completed = header.indexOf("completed");
+        if (title < 0) {
+            throw new IllegalArgumentException("CSV header must contain a title column");
+        }
+
+        return new Iterator<>() {
+            private List<String> next = readNext();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public TodoDTO next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                TodoDTO todo = new TodoDTO();
+                todo.setTitle(field(next, title));
+                todo.setDescription(field(next, description));
+                String done = field(next, completed);
+                todo.setCompleted(done != null && Boolean.parseBoolean(done.trim()));
+                next = readNext();
+                return todo;
+            }
+
+            private List<String> readNext() {
+                try {
+                    return readRecord(in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private static String field(List<String> record, int index) {
+        if (index < 0 || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    // Returns null at end of input; blank lines are skipped
+    private static List<String> readRecord(PushbackReader in) throws IOException {
+        while (true) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean inQuotes = false;
+            boolean sawAny = false;
+            int length = 0;
+            int c;
+            while ((c = in.read()) != -1) {
+                sawAny = true;
+                if (++length > MAX_RECORD_LENGTH) {
+                    throw new IllegalArgumentException("CSV record longer than " + MAX_RECORD_LENGTH + " characters");
+                }
+                if (inQuotes) {
+                    if (c == '"') {
+                        int following = in.read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            inQuotes = false;
+                            if (following != -1) {
+                                in.unread(following);
+                            }
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    inQuotes = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (!sawAny) {
+                return null;
+            }
+            fields.add(field.toString());
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                if (c == -1) {
+                    return null;
+                }
+                continue;
+            }
+            return fields;
+        }
+    }
+}
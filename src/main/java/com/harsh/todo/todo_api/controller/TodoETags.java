@@ -0,0 +1,115 @@
+package com.harsh.todo.todo_api.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+// Strong entity tags for todo resources: a single todo is tagged by id and row version,
+// a list by the owner's change counter plus the query string that shaped it. Each wire format is a separate
+// representation, so non-JSON formats get their own suffix on both.
+final class TodoETags {
+
+    private TodoETags() {
+    }
+
+    static String forTodo(Long id, Long version, TodoWireFormat format) {
+        return "\"" + id + "-" + version + variant(format) + "\"";
+    }
+
+    // gzip-negotiated list responses are a representation of their own as well. The query string is hashed with
+    // SHA-256, not String.hashCode, so two different queries cannot realistically share a tag and get a wrong 304.
+    static String forList(String listVersion, String queryString, TodoWireFormat format, boolean gzip) {
+        String query = queryString != null ? sha256(queryString) : "0";
+        return "\"l" + listVersion + "-" + query + variant(format) + (gzip ? "-gzip" : "") + "\"";
+    }
+
+    // URL-safe base64 stays within the characters allowed in an entity tag
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String variant(TodoWireFormat format) {
+        return format == TodoWireFormat.JSON ? "" : "-" + format.name().toLowerCase();
+    }
+
+    // Returns the version an If-Match header pins the todo to, or null when there is no precondition.
+    // A tag from any representation of the todo pins the same version. The header may list several tags; weak ones
+    // never match (If-Match compares strongly) and tags of other todos are ignored. When the list names more than one
+    // version of this todo the write can still only pin one, so currentVersion is asked and used if it is listed.
+    static Long expectedVersion(String ifMatch, Long id, Supplier<Long> currentVersion) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (String tag : strongTags(ifMatch)) {
+            Long version = versionOf(tag, id);
+            if (version != null) {
+                versions.add(version);
+            }
+        }
+        if (versions.size() == 1) {
+            return versions.iterator().next();
+        }
+        Long current = versions.isEmpty() ? null : currentVersion.get();
+        if (current == null || !versions.contains(current)) {
+            throw new RuntimeException("Todo version conflict");
+        }
+        return current;
+    }
+
+    // The opaque parts of the strong tags in an entity-tag list such as "a", W/"b", "c"; a malformed list is a conflict
+    private static List<String> strongTags(String header) {
+        List<String> tags = new ArrayList<>();
+        int i = 0;
+        while (i < header.length()) {
+            char c = header.charAt(i);
+            if (c == ',' || c == ' ' || c == '\t') {
+                i++;
+                continue;
+            }
+            boolean weak = header.startsWith("W/", i);
+            int open = weak ? i + 2 : i;
+            int close = open < header.length() && header.charAt(open) == '"' ? header.indexOf('"', open + 1) : -1;
+            if (close < 0) {
+                throw new RuntimeException("Todo version conflict");
+            }
+            if (!weak) {
+                tags.add(header.substring(open + 1, close));
+            }
+            i = close + 1;
+        }
+        return tags;
+    }
+
+    // "7-3" or "7-3-cbor" for todo 7 gives 3; anything else gives null
+    private static Long versionOf(String tag, Long id) {
+        String prefix = id + "-";
+        if (!tag.startsWith(prefix)) {
+            return null;
+        }
+        String version = tag.substring(prefix.length());
+        for (TodoWireFormat format : TodoWireFormat.values()) {
+            String suffix = variant(format);
+            if (!suffix.isEmpty() && version.endsWith(suffix)) {
+                version = version.substring(0, version.length() - suffix.length());
+                break;
+            }
+        }
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
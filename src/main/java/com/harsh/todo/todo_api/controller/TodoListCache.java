@@ -0,0 +1,110 @@
+package com.harsh.todo.todo_api.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// Serialized GET /todos bodies keyed by the owner's list version (users.todos_version) and the query string.
+// Every todo write bumps that version, so a write makes the user's old entries unreachable; they then age out
+// through the byte budget or the TTL instead of being removed eagerly.
+// A hit is not free of the database: the controller still reads the version (one primary-key SELECT on users) to
+// build the key. That read is what keeps hits correct when another instance, or any path that skips this process,
+// writes the todos, and it is the same read that answers If-None-Match with a 304. A hit saves the list and count
+// queries and the serialization.
+// A compressible body is gzipped the first time a gzip-accepting request reads it, then kept with the entry,
+// so hits never recompress and clients that don't accept gzip never pay for it.
+@Component
+public class TodoListCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final ResponseCompression compression;
+    private final Cache<String, CachedBody> cache;
+
+    public TodoListCache(ResponseCompression compression,
+                         @Value("${app.todos.list-cache.enabled:true}") boolean enabled,
+                         @Value("${app.todos.list-cache.max-bytes:67108864}") long maxBytes,
+                         @Value("${app.todos.list-cache.ttl:60s}") Duration ttl) {
+        this.enabled = enabled;
+        this.compression = compression;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedBody body) -> key.length() * 2 + body.weight())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // Returns the cached body, or serializes the loader's result once and stores it
+    public CachedBody get(String listVersion, String queryString, MediaType contentType, Supplier<byte[]> loader) {
+        if (!enabled) {
+            return load(contentType, loader);
+        }
+        return cache.get(listVersion + "?" + (queryString != null ? queryString : ""), key -> load(contentType, loader));
+    }
+
+    private CachedBody load(MediaType contentType, Supplier<byte[]> loader) {
+        return new CachedBody(loader.get(), compression.compressible(contentType) ? compression : null);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "todos.list");
+    }
+
+    public static final class CachedBody {
+
+        private static final byte[] NOT_SMALLER = new byte[0];
+
+        private final byte[] body;
+        private final ResponseCompression compression;
+        private volatile byte[] gzipped;
+
+        // compression is null when the content type is not compressible
+        CachedBody(byte[] body, ResponseCompression compression) {
+            this.body = body;
+            this.compression = compression;
+        }
+
+        public byte[] body() {
+            return body;
+        }
+
+        // Gzipped copy, computed on first use; null when the body is not compressible or too small to be worth it
+        public byte[] gzipped() {
+            if (compression == null) {
+                return null;
+            }
+            byte[] result = gzipped;
+            if (result == null) {
+                synchronized (this) {
+                    result = gzipped;
+                    if (result == null) {
+                        byte[] compressed = compression.gzip(body);
+                        result = compressed != null ? compressed : NOT_SMALLER;
+                        gzipped = result;
+                    }
+                }
+            }
+            return result != NOT_SMALLER ? result : null;
+        }
+
+        // Weighed once on insert, before any gzip exists, so room for a gzipped copy (never larger than the body)
+        // is reserved up front
+        int weight() {
+            return compression != null ? body.length * 2 : body.length;
+        }
+    }
+}
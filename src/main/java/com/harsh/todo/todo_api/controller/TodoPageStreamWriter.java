@@ -0,0 +1,62 @@
+package com.harsh.todo.todo_api.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harsh.todo.todo_api.dto.TodoResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+// Writes a GET /todos page straight to the response, one todo at a time, in the same shape Jackson gives
+// PaginatedTodoResponse and SlicedTodoResponse. Only the generator's small buffer is held, whatever the page size.
+final class TodoPageStreamWriter implements Consumer<TodoResponse> {
+
+    private final JsonGenerator generator;
+
+    TodoPageStreamWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("data");
+    }
+
+    @Override
+    public void accept(TodoResponse todo) {
+        try {
+            generator.writeStartObject();
+            if (todo.getId() != null) {
+                generator.writeNumberField("id", todo.getId());
+            } else {
+                generator.writeNullField("id");
+            }
+            generator.writeStringField("title", todo.getTitle());
+            generator.writeStringField("description", todo.getDescription());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void endPaginated(int page, int limit, long total) throws IOException {
+        generator.writeEndArray();
+        generator.writeNumberField("page", page);
+        generator.writeNumberField("limit", limit);
+        generator.writeNumberField("total", total);
+        finish();
+    }
+
+    void endSliced(int page, int limit, boolean hasNext) throws IOException {
+        generator.writeEndArray();
+        generator.writeNumberField("page", page);
+        generator.writeNumberField("limit", limit);
+        generator.writeBooleanField("hasNext", hasNext);
+        finish();
+    }
+
+    private void finish() throws IOException {
+        generator.writeEndObject();
+        generator.close();
+    }
+}
@@ -0,0 +1,251 @@
+package com.harsh.todo.todo_api.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harsh.todo.todo_api.dto.TodoDTO;
+import com.harsh.todo.todo_api.dto.TodoSyncItem;
+import com.harsh.todo.todo_api.service.TodoService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+// Bulk move of a user's todos as NDJSON (one TodoSyncItem/TodoDTO object per line) or CSV. Neither direction holds
+// the data set in memory or a pooled connection while waiting on the client: export reads keyset chunks and writes
+// (optionally gzipped) as it goes, import spools the upload to a temp file, then parses it one row at a time and
+// inserts in JDBC batches in one transaction.
+@RestController
+public class TodoTransferController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoTransferController.class);
+
+    static final String NDJSON = "application/x-ndjson";
+    static final String CSV = "text/csv";
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResponseCompression compression;
+
+    // Uploads are spooled to a temp file up to this size (compressed size when gzipped)
+    @Value("${app.todos.import.max-size:256MB}")
+    private DataSize maxImportSize;
+
+    @GetMapping("/todos/export")
+    public ResponseEntity<?> exportTodos(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        if (!format.equals("ndjson") && !format.equals("csv")) {
+            return badRequest("Invalid format: " + format);
+        }
+        MediaType contentType = MediaType.parseMediaType(format.equals("csv") ? CSV : NDJSON);
+        boolean gzip = compression.applies(contentType, acceptEncoding);
+
+        ExportWriter writer = new ExportWriter(response, format.equals("csv"), gzip);
+        try {
+            long start = System.nanoTime();
+            long rows = todoService.exportTodos(writer);
+            writer.finish();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            logger.info("Exported {} todos as {} in {} ms ({} rows/s)", rows, format,
+                    Math.round(seconds * 1000), Math.round(rows / Math.max(seconds, 1e-9)));
+            return null;
+        } catch (RuntimeException e) {
+            if (writer.isOpen()) {
+                // Mid-stream failure: the status may already be sent, so all we can do is cut the download short
+                throw e;
+            }
+            return unauthorized();
+        }
+    }
+
+    @PostMapping(value = "/todos/import", consumes = {NDJSON, CSV})
+    public ResponseEntity<?> importTodos(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            HttpServletRequest request) throws IOException {
+        Path upload = Files.createTempFile("todo-import-", ".upload");
+        try {
+            // The whole body is on local disk before the import transaction takes a connection
+            if (!spool(request.getInputStream(), upload)) {
+                return error(HttpStatus.PAYLOAD_TOO_LARGE, "Import must be at most " + maxImportSize + " in size");
+            }
+            boolean gzip = contentEncoding != null && contentEncoding.contains("gzip");
+            try (InputStream in = gzip ? new GZIPInputStream(Files.newInputStream(upload), 64 * 1024)
+                    : Files.newInputStream(upload)) {
+                Iterator<TodoDTO> todos = contentType.startsWith(CSV)
+                        ? TodoCsv.read(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)))
+                        : objectMapper.readerFor(TodoDTO.class).readValues(in);
+
+                long start = System.nanoTime();
+                long imported = todoService.importTodos(todos);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                Map<String, Object> result = new HashMap<>();
+                result.put("imported", imported);
+                result.put("seconds", seconds);
+                result.put("rowsPerSecond", Math.round(imported / Math.max(seconds, 1e-9)));
+                logger.info("Imported {} todos in {} ms ({} rows/s)", imported, Math.round(seconds * 1000),
+                        result.get("rowsPerSecond"));
+                return ResponseEntity.ok(result);
+            }
+        } catch (IOException | IllegalArgumentException | UncheckedIOException e) {
+            return badRequest("Invalid import file: " + e.getMessage());
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && (e.getMessage().startsWith("Invalid import row")
+                    || e.getMessage().startsWith("Import must contain"))) {
+                return badRequest(e.getMessage());
+            }
+            if (e.getCause() instanceof IOException) {
+                return badRequest("Invalid import file: " + e.getMessage());
+            }
+            if (e.getMessage() != null && (e.getMessage().contains("Unauthorized") || e.getMessage().contains("User not found"))) {
+                return unauthorized();
+            }
+            // Anything else the import trips over (e.g. a constraint violation) is a problem with the submitted rows
+            return badRequest("Invalid import");
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    // Copies the request body to the file; false once it grows past the import size limit
+    private boolean spool(InputStream in, Path file) throws IOException {
+        long limit = maxImportSize.toBytes();
+        long copied = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                copied += read;
+                if (copied > limit) {
+                    return false;
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return true;
+    }
+
+    private ResponseEntity<?> badRequest(String message) {
+        return error(HttpStatus.BAD_REQUEST, message);
+    }
+
+    private ResponseEntity<?> error(HttpStatus status, String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", message);
+        return ResponseEntity.status(status).body(error);
+    }
+
+    private ResponseEntity<?> unauthorized() {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", "Unauthorized");
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    }
+
+    // Opens the response on the first row (or at the end for an empty export), so failures that happen before
+    // any data, such as an unauthenticated caller, can still be answered with a normal error response
+    private final class ExportWriter implements Consumer<TodoSyncItem> {
+
+        private final HttpServletResponse response;
+        private final boolean csv;
+        private final boolean gzip;
+        private OutputStream out;
+        private Writer csvWriter;
+        private JsonGenerator json;
+
+        ExportWriter(HttpServletResponse response, boolean csv, boolean gzip) {
+            this.response = response;
+            this.csv = csv;
+            this.gzip = gzip;
+        }
+
+        @Override
+        public void accept(TodoSyncItem todo) {
+            try {
+                open();
+                if (csv) {
+                    TodoCsv.writeRow(csvWriter, todo);
+                } else {
+                    json.writeStartObject();
+                    json.writeNumberField("id", todo.getId());
+                    json.writeStringField("title", todo.getTitle());
+                    json.writeStringField("description", todo.getDescription());
+                    json.writeBooleanField("completed", todo.isCompleted());
+                    json.writeStringField("createdAt", todo.getCreatedAt() != null ? todo.getCreatedAt().toString() : null);
+                    json.writeStringField("updatedAt", todo.getUpdatedAt() != null ? todo.getUpdatedAt().toString() : null);
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        boolean isOpen() {
+            return out != null;
+        }
+
+        void finish() throws IOException {
+            open();
+            if (csv) {
+                csvWriter.close();
+            } else {
+                json.close();
+            }
+        }
+
+        private void open() throws IOException {
+            if (out != null) {
+                return;
+            }
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(csv ? CSV + ";charset=UTF-8" : NDJSON);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"todos." + (csv ? "csv" : "ndjson") + "\"");
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            out = gzip ? compression.gzip(response) : response.getOutputStream();
+            if (csv) {
+                csvWriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+                csvWriter.write(TodoCsv.HEADER);
+                csvWriter.write("\r\n");
+            } else {
+                json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+                // Lines are separated explicitly, not by Jackson's default root value separator
+                json.setRootValueSeparator(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.harsh.todo.todo_api.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+// Representations of GET /todos that bypass the message converters (cached bytes and streamed pages).
+// Other endpoints negotiate the same formats through the registered converters.
+enum TodoWireFormat {
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR);
+
+    private final MediaType mediaType;
+
+    TodoWireFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    MediaType mediaType() {
+        return mediaType;
+    }
+
+    // Highest-quality Accept entry that names CBOR or anything JSON-compatible wins; JSON when nothing matches
+    static TodoWireFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        try {
+            List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(accepted);
+            for (MediaType mediaType : accepted) {
+                if (mediaType.getQualityValue() == 0) {
+                    continue;
+                }
+                if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                    return CBOR;
+                }
+                if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return JSON;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Unparseable headers, and lists too long to sort (InvalidMimeTypeException), fall back to JSON
+            return JSON;
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,14 @@
+package com.harsh.todo.todo_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CursorTodoResponse {
+    private List<TodoResponse> data;
+    private int limit;
+    // Opaque token for the next page; null when there are no more todos
+    private String nextCursor;
+}
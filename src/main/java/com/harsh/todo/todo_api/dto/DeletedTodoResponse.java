@@ -0,0 +1,12 @@
+package com.harsh.todo.todo_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class DeletedTodoResponse {
+    private Long id;
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,14 @@
+package com.harsh.todo.todo_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class SlicedTodoResponse {
+    private List<TodoResponse> data;
+    private int page;
+    private int limit;
+    private boolean hasNext;
+}
@@ -0,0 +1,19 @@
+package com.harsh.todo.todo_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+public class TodoBatchUpdateDTO {
+    @Schema(description = "ID of the todo to update", example = "1")
+    private Long id;
+
+    @Schema(description = "Title of the todo item", example = "Complete Swagger integration")
+    private String title;
+
+    @Schema(description = "Description of the task", example = "Add OpenAPI annotations and secure endpoints")
+    private String description;
+
+    @Schema(description = "Is the task completed?", example = "false")
+    private boolean completed = false;
+}
@@ -0,0 +1,16 @@
+package com.harsh.todo.todo_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class TodoChangesResponse {
+    private List<TodoSyncItem> changed;
+    private List<DeletedTodoResponse> deleted;
+    // Pass back as "since" on the next call
+    private String watermark;
+    // True when the change set was cut at the limit; call again right away with the new watermark
+    private boolean hasMore;
+}
@@ -0,0 +1,48 @@
+package com.harsh.todo.todo_api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Setter;
+
+// Sparse update: fields left out keep their current value. Jackson calls the setter for an explicit null too,
+// so the *Present flags tell {"description": null} (clear it) apart from a body without description.
+@Data
+public class TodoPatchDTO {
+    @Schema(description = "New title, omit to keep the current one", example = "Complete Swagger integration")
+    private String title;
+
+    @Schema(description = "New description, omit to keep the current one or send null to clear it", example = "Add OpenAPI annotations and secure endpoints")
+    private String description;
+
+    @Schema(description = "New completion state, omit to keep the current one", example = "true")
+    private Boolean completed;
+
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private boolean titlePresent;
+
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private boolean descriptionPresent;
+
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private boolean completedPresent;
+
+    public void setTitle(String title) {
+        this.title = title;
+        this.titlePresent = true;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+        this.descriptionPresent = true;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+        this.completedPresent = true;
+    }
+}
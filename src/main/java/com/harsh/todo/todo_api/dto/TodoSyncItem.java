@@ -0,0 +1,17 @@
+package com.harsh.todo.todo_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// Full todo state for sync clients, which need every field to upsert their local copy
+@Data
+@AllArgsConstructor
+public class TodoSyncItem {
+    private Long id;
+    private String title;
+    private String description;
+    private boolean completed;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
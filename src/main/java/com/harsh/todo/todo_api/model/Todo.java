@@ -3,14 +3,23 @@ package com.harsh.todo.todo_api.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "todos")
+@DynamicUpdate // entity flushes write only the columns that changed
+@Table(name = "todos", indexes = {
+        // Kept in sync with the V2 and V6 migrations in db/migration
+        @Index(name = "idx_todos_user_created_id", columnList = "user_id, created_at DESC, id DESC"),
+        @Index(name = "idx_todos_user_completed_created", columnList = "user_id, completed, created_at DESC"),
+        @Index(name = "idx_todos_user_updated", columnList = "user_id, updated_at")
+})
 public class Todo {
+    // Pooled sequence (see db/migration/V4__todos_id_sequence) so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todos_seq")
+    @SequenceGenerator(name = "todos_seq", sequenceName = "todos_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -21,6 +30,10 @@ public class Todo {
     @Column(nullable = false)
     private boolean completed = false;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
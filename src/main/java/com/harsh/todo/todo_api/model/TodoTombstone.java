@@ -0,0 +1,26 @@
+package com.harsh.todo.todo_api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "todo_tombstones", indexes = {
+        @Index(name = "idx_todo_tombstones_user_deleted", columnList = "user_id, deleted_at, todo_id")
+})
+public class TodoTombstone {
+    @Id
+    @Column(name = "todo_id")
+    private Long todoId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
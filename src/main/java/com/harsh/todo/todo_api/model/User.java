@@ -24,6 +24,14 @@ public class User {
     @Column(nullable = false)
     private String role = "USER";
 
+    // Materialized count of this user's todos, so list pages don't need a count(*) scan
+    @Column(name = "todo_count", nullable = false)
+    private long todoCount = 0;
+
+    // Bumped by every todo write so list responses can be revalidated with a single primary-key read
+    @Column(name = "todos_version", nullable = false)
+    private long todosVersion = 0;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Todo> todos;
 }
@@ -0,0 +1,19 @@
+package com.harsh.todo.todo_api.repository;
+
+import java.time.LocalDateTime;
+
+// Optional server-side filters for todo listing; null fields are not applied
+public record TodoFilter(Boolean completed,
+                         LocalDateTime createdFrom,
+                         LocalDateTime createdTo,
+                         LocalDateTime updatedFrom,
+                         LocalDateTime updatedTo,
+                         String text) {
+
+    public static final TodoFilter NONE = new TodoFilter(null, null, null, null, null, null);
+
+    public boolean isEmpty() {
+        return completed == null && createdFrom == null && createdTo == null
+                && updatedFrom == null && updatedTo == null && (text == null || text.isBlank());
+    }
+}
@@ -1,16 +1,24 @@
 package com.harsh.todo.todo_api.repository;
 
+import com.harsh.todo.todo_api.dto.TodoResponse;
+import com.harsh.todo.todo_api.dto.TodoSyncItem;
 import com.harsh.todo.todo_api.model.Todo;
 import com.harsh.todo.todo_api.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TodoRepository extends JpaRepository<Todo, Long> {
+public interface TodoRepository extends JpaRepository<Todo, Long>, TodoRepositoryCustom {
     List<Todo> findByUserOrderByCreatedAtDesc(User user);
     List<Todo> findByUserAndCompletedOrderByCreatedAtDesc(User user, boolean completed);
     Optional<Todo> findByIdAndUser(Long id, User user);
@@ -19,4 +27,94 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
 
     // New method for pagination
     Page<Todo> findByUser(User user, Pageable pageable);
+
+    // Scoped by user id so callers only need the authenticated principal, not a loaded User
+    Optional<Todo> findByIdAndUserId(Long id, Long userId);
+    boolean existsByIdAndUserId(Long id, Long userId);
+    long countByUserId(Long userId);
+    List<Todo> findByIdInAndUserId(Collection<Long> ids, Long userId);
+
+    // Read paths select straight into DTOs, so no entities, proxies or dirty-checking snapshots are created
+    @Query("SELECT new com.harsh.todo.todo_api.dto.TodoResponse(t.id, t.title, t.description) " +
+            "FROM Todo t WHERE t.id = :id AND t.user.id = :userId")
+    Optional<TodoResponse> findResponseByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query("SELECT new com.harsh.todo.todo_api.repository.VersionedTodo(t.id, t.title, t.description, t.version, t.updatedAt) " +
+            "FROM Todo t WHERE t.id = :id AND t.user.id = :userId")
+    Optional<VersionedTodo> findVersionedByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query(value = "SELECT new com.harsh.todo.todo_api.dto.TodoResponse(t.id, t.title, t.description) " +
+            "FROM Todo t WHERE t.user.id = :userId",
+            countQuery = "SELECT count(t) FROM Todo t WHERE t.user.id = :userId")
+    Page<TodoResponse> findResponsesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Same page as findResponsesByUserId but without the count query
+    @Query("SELECT new com.harsh.todo.todo_api.dto.TodoResponse(t.id, t.title, t.description) " +
+            "FROM Todo t WHERE t.user.id = :userId")
+    Slice<TodoResponse> findResponseSliceByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Keyset pagination: seek past the last (createdAt, id) seen instead of using OFFSET, and skip the count query
+    @Query("SELECT new com.harsh.todo.todo_api.repository.TodoRow(t.id, t.title, t.description, t.createdAt) " +
+            "FROM Todo t WHERE t.user.id = :userId ORDER BY t.createdAt DESC, t.id DESC")
+    List<TodoRow> findRowsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT new com.harsh.todo.todo_api.repository.TodoRow(t.id, t.title, t.description, t.createdAt) " +
+            "FROM Todo t WHERE t.user.id = :userId AND (t.createdAt, t.id) < (:createdAt, :id) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TodoRow> findRowsByUserIdAfter(@Param("userId") Long userId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+
+    // Delta sync: everything written after the (updatedAt, id) watermark, oldest first
+    @Query("SELECT new com.harsh.todo.todo_api.dto.TodoSyncItem(t.id, t.title, t.description, t.completed, t.createdAt, t.updatedAt) " +
+            "FROM Todo t WHERE t.user.id = :userId AND (t.updatedAt, t.id) > (:since, :sinceId) " +
+            "ORDER BY t.updatedAt, t.id")
+    List<TodoSyncItem> findChangedSince(@Param("userId") Long userId,
+                                        @Param("since") LocalDateTime since,
+                                        @Param("sinceId") Long sinceId,
+                                        Pageable pageable);
+
+    // Keyset chunk of a user's todos for export: ids after afterId, oldest first
+    @Query("SELECT new com.harsh.todo.todo_api.dto.TodoSyncItem(t.id, t.title, t.description, t.completed, t.createdAt, t.updatedAt) " +
+            "FROM Todo t WHERE t.user.id = :userId AND t.id > :afterId ORDER BY t.id")
+    List<TodoSyncItem> findSyncItemsByUserIdAfter(@Param("userId") Long userId,
+                                                  @Param("afterId") Long afterId,
+                                                  Pageable pageable);
+
+    // Ownership-scoped writes: one round trip, and the affected-row count tells the caller whether the todo exists
+    @Modifying
+    @Query("UPDATE Todo t SET t.title = :title, t.description = :description, t.completed = :completed, " +
+            "t.updatedAt = :updatedAt, t.version = t.version + 1 WHERE t.id = :id AND t.user.id = :userId")
+    int updateByIdAndUserId(@Param("id") Long id,
+                            @Param("userId") Long userId,
+                            @Param("title") String title,
+                            @Param("description") String description,
+                            @Param("completed") boolean completed,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE Todo t SET t.title = :title, t.description = :description, t.completed = :completed, " +
+            "t.updatedAt = :updatedAt, t.version = t.version + 1 " +
+            "WHERE t.id = :id AND t.user.id = :userId AND t.version = :version")
+    int updateByIdAndUserIdAndVersion(@Param("id") Long id,
+                                      @Param("userId") Long userId,
+                                      @Param("version") Long version,
+                                      @Param("title") String title,
+                                      @Param("description") String description,
+                                      @Param("completed") boolean completed,
+                                      @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("DELETE FROM Todo t WHERE t.id = :id AND t.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM Todo t WHERE t.id = :id AND t.user.id = :userId AND t.version = :version")
+    int deleteByIdAndUserIdAndVersion(@Param("id") Long id, @Param("userId") Long userId, @Param("version") Long version);
+
+    // Single ownership-scoped statement for batch deletes
+    @Modifying
+    @Query("DELETE FROM Todo t WHERE t.id IN :ids AND t.user.id = :userId")
+    int deleteByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
 }
\ No newline at end of file
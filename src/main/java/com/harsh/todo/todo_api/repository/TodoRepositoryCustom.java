@@ -0,0 +1,41 @@
+package com.harsh.todo.todo_api.repository;
+
+import com.harsh.todo.todo_api.dto.TodoResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface TodoRepositoryCustom {
+
+    // Writes only the non-null columns, plus a NULL description when clearDescription is set; returns the number of
+    // rows updated (0 or 1)
+    int patchByIdAndUserId(Long id, Long userId, Long expectedVersion,
+                           String title, String description, boolean clearDescription, Boolean completed,
+                           LocalDateTime updatedAt);
+
+    // Same write, returning the todo as it is after the update, or empty when no row matched. On PostgreSQL this is a
+    // single UPDATE ... RETURNING and on H2 the same UPDATE inside SELECT ... FROM FINAL TABLE; elsewhere the columns
+    // the patch did not supply are read back afterwards.
+    Optional<TodoResponse> patchReturningResponse(Long id, Long userId, Long expectedVersion,
+                                                  String title, String description, boolean clearDescription,
+                                                  Boolean completed, LocalDateTime updatedAt);
+
+    // Filtered listings, projected straight into DTOs like the unfiltered queries in TodoRepository
+    Page<TodoResponse> searchResponses(Long userId, TodoFilter filter, Pageable pageable);
+
+    Slice<TodoResponse> searchResponseSlice(Long userId, TodoFilter filter, Pageable pageable);
+
+    // Forward-only stream of one page with a JDBC fetch size, for writing large pages without materializing them.
+    // Must be consumed and closed inside the caller's transaction.
+    Stream<TodoResponse> streamResponses(Long userId, TodoFilter filter, Pageable pageable, int maxResults);
+
+    long countMatching(Long userId, TodoFilter filter);
+
+    // Keyset variant; afterCreatedAt/afterId are null for the first page
+    List<TodoRow> searchRows(Long userId, TodoFilter filter, LocalDateTime afterCreatedAt, Long afterId, int limit);
+}
@@ -0,0 +1,275 @@
+package com.harsh.todo.todo_api.repository;
+
+import com.harsh.todo.todo_api.dto.TodoResponse;
+import com.harsh.todo.todo_api.model.Todo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class TodoRepositoryCustomImpl implements TodoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Rows fetched per round trip when streaming; PostgreSQL only honours it inside a transaction
+    @Value("${app.todos.streaming.fetch-size:500}")
+    private int streamingFetchSize;
+
+    // Resolved from the Hibernate dialect on first use
+    private volatile ReturningStyle returningStyle;
+
+    // How the dialect hands back the row an UPDATE wrote, if it can in the same statement
+    private enum ReturningStyle { POSTGRESQL, H2, NONE }
+
+    @Override
+    public int patchByIdAndUserId(Long id, Long userId, Long expectedVersion,
+                                  String title, String description, boolean clearDescription, Boolean completed,
+                                  LocalDateTime updatedAt) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Todo> update = cb.createCriteriaUpdate(Todo.class);
+        Root<Todo> todo = update.from(Todo.class);
+
+        if (title != null) {
+            update.set(todo.<String>get("title"), title);
+        }
+        if (description != null) {
+            update.set(todo.<String>get("description"), description);
+        } else if (clearDescription) {
+            update.set(todo.<String>get("description"), cb.nullLiteral(String.class));
+        }
+        if (completed != null) {
+            update.set(todo.<Boolean>get("completed"), completed);
+        }
+        update.set(todo.<LocalDateTime>get("updatedAt"), updatedAt);
+        update.set(todo.<Long>get("version"), cb.sum(todo.<Long>get("version"), 1L));
+
+        Predicate owned = cb.and(
+                cb.equal(todo.get("id"), id),
+                cb.equal(todo.get("user").get("id"), userId));
+        if (expectedVersion != null) {
+            owned = cb.and(owned, cb.equal(todo.get("version"), expectedVersion));
+        }
+        update.where(owned);
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public Optional<TodoResponse> patchReturningResponse(Long id, Long userId, Long expectedVersion,
+                                                         String title, String description, boolean clearDescription,
+                                                         Boolean completed, LocalDateTime updatedAt) {
+        ReturningStyle style = returningStyle();
+        if (style == ReturningStyle.NONE) {
+            if (patchByIdAndUserId(id, userId, expectedVersion, title, description, clearDescription, completed,
+                    updatedAt) == 0) {
+                return Optional.empty();
+            }
+            if (title != null && (description != null || clearDescription)) {
+                return Optional.of(new TodoResponse(id, title, description));
+            }
+            return entityManager.createQuery("SELECT new com.harsh.todo.todo_api.dto.TodoResponse(t.id, t.title, t.description) " +
+                            "FROM Todo t WHERE t.id = :id AND t.user.id = :userId", TodoResponse.class)
+                    .setParameter("id", id)
+                    .setParameter("userId", userId)
+                    .getResultStream()
+                    .findFirst();
+        }
+
+        // Only the supplied columns are set, as in patchByIdAndUserId
+        StringBuilder update = new StringBuilder("UPDATE todos SET updated_at = :updatedAt, version = version + 1");
+        if (title != null) {
+            update.append(", title = :title");
+        }
+        if (description != null) {
+            update.append(", description = :description");
+        } else if (clearDescription) {
+            update.append(", description = NULL");
+        }
+        if (completed != null) {
+            update.append(", completed = :completed");
+        }
+        update.append(" WHERE id = :id AND user_id = :userId");
+        if (expectedVersion != null) {
+            update.append(" AND version = :version");
+        }
+        // The same UPDATE either way; H2 reads the written row back through a data change delta table
+        String sql = style == ReturningStyle.POSTGRESQL
+                ? update + " RETURNING id, title, description"
+                : "SELECT id, title, description FROM FINAL TABLE (" + update + ")";
+
+        Query query = entityManager.createNativeQuery(sql)
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("id", id)
+                .setParameter("userId", userId);
+        if (title != null) {
+            query.setParameter("title", title);
+        }
+        if (description != null) {
+            query.setParameter("description", description);
+        }
+        if (completed != null) {
+            query.setParameter("completed", completed);
+        }
+        if (expectedVersion != null) {
+            query.setParameter("version", expectedVersion);
+        }
+        List<?> rows = query.getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = (Object[]) rows.get(0);
+        return Optional.of(new TodoResponse(((Number) row[0]).longValue(), (String) row[1], (String) row[2]));
+    }
+
+    private ReturningStyle returningStyle() {
+        if (returningStyle == null) {
+            Dialect dialect = dialect();
+            returningStyle = dialect instanceof PostgreSQLDialect ? ReturningStyle.POSTGRESQL
+                    : dialect instanceof H2Dialect ? ReturningStyle.H2
+                    : ReturningStyle.NONE;
+        }
+        return returningStyle;
+    }
+
+    private Dialect dialect() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+    }
+
+    @Override
+    public Page<TodoResponse> searchResponses(Long userId, TodoFilter filter, Pageable pageable) {
+        List<TodoResponse> content = selectResponses(userId, filter, pageable, pageable.getPageSize());
+        return new PageImpl<>(content, pageable, countMatching(userId, filter));
+    }
+
+    @Override
+    public long countMatching(Long userId, TodoFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> count = cb.createQuery(Long.class);
+        Root<Todo> todo = count.from(Todo.class);
+        count.select(cb.count(todo)).where(filterPredicates(cb, todo, userId, filter).toArray(new Predicate[0]));
+        return entityManager.createQuery(count).getSingleResult();
+    }
+
+    @Override
+    public Stream<TodoResponse> streamResponses(Long userId, TodoFilter filter, Pageable pageable, int maxResults) {
+        return responsesQuery(userId, filter, pageable, maxResults)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, streamingFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Slice<TodoResponse> searchResponseSlice(Long userId, TodoFilter filter, Pageable pageable) {
+        // One extra row tells us whether there is a next slice, without a count query
+        List<TodoResponse> content = selectResponses(userId, filter, pageable, pageable.getPageSize() + 1);
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public List<TodoRow> searchRows(Long userId, TodoFilter filter, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TodoRow> query = cb.createQuery(TodoRow.class);
+        Root<Todo> todo = query.from(Todo.class);
+
+        List<Predicate> predicates = filterPredicates(cb, todo, userId, filter);
+        if (afterCreatedAt != null && afterId != null) {
+            // Expanded form of (created_at, id) < (?, ?)
+            Expression<LocalDateTime> createdAt = todo.get("createdAt");
+            predicates.add(cb.or(
+                    cb.lessThan(createdAt, afterCreatedAt),
+                    cb.and(cb.equal(createdAt, afterCreatedAt), cb.lessThan(todo.<Long>get("id"), afterId))));
+        }
+
+        query.select(cb.construct(TodoRow.class,
+                        todo.get("id"), todo.get("title"), todo.get("description"), todo.get("createdAt")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(todo.get("createdAt")), cb.desc(todo.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private List<TodoResponse> selectResponses(Long userId, TodoFilter filter, Pageable pageable, int maxResults) {
+        return responsesQuery(userId, filter, pageable, maxResults).getResultList();
+    }
+
+    private TypedQuery<TodoResponse> responsesQuery(Long userId, TodoFilter filter, Pageable pageable, int maxResults) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TodoResponse> query = cb.createQuery(TodoResponse.class);
+        Root<Todo> todo = query.from(Todo.class);
+
+        List<Order> orders = new ArrayList<>(QueryUtils.toOrders(pageable.getSort(), todo, cb));
+        // Tie-breaker keeps page boundaries stable when sort values repeat (TodoService already sorts by id last)
+        if (pageable.getSort().getOrderFor("id") == null) {
+            orders.add(cb.desc(todo.get("id")));
+        }
+
+        query.select(cb.construct(TodoResponse.class, todo.get("id"), todo.get("title"), todo.get("description")))
+                .where(filterPredicates(cb, todo, userId, filter).toArray(new Predicate[0]))
+                .orderBy(orders);
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(maxResults);
+    }
+
+    private List<Predicate> filterPredicates(CriteriaBuilder cb, Root<Todo> todo, Long userId, TodoFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(todo.get("user").get("id"), userId));
+
+        if (filter.completed() != null) {
+            predicates.add(cb.equal(todo.get("completed"), filter.completed()));
+        }
+        if (filter.createdFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(todo.<LocalDateTime>get("createdAt"), filter.createdFrom()));
+        }
+        if (filter.createdTo() != null) {
+            predicates.add(cb.lessThan(todo.<LocalDateTime>get("createdAt"), filter.createdTo()));
+        }
+        if (filter.updatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(todo.<LocalDateTime>get("updatedAt"), filter.updatedFrom()));
+        }
+        if (filter.updatedTo() != null) {
+            predicates.add(cb.lessThan(todo.<LocalDateTime>get("updatedAt"), filter.updatedTo()));
+        }
+        if (filter.text() != null && !filter.text().isBlank()) {
+            // A query without any words (only punctuation) matches nothing
+            String words = TodoSearchFunctionContributor.searchArgument(filter.text(), dialect());
+            predicates.add(words == null ? cb.disjunction() : cb.isTrue(cb.function(TodoSearchFunctionContributor.TEXT_MATCH,
+                    Boolean.class, todo.get("title"), todo.get("description"), cb.literal(words))));
+        }
+        return predicates;
+    }
+}
\ No newline at end of file
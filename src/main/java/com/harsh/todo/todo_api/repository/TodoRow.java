@@ -0,0 +1,7 @@
+package com.harsh.todo.todo_api.repository;
+
+import java.time.LocalDateTime;
+
+// Read-only projection for list queries; carries createdAt so keyset cursors can be built without loading entities
+public record TodoRow(Long id, String title, String description, LocalDateTime createdAt) {
+}
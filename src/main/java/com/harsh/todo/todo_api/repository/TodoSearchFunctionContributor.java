@@ -0,0 +1,59 @@
+package com.harsh.todo.todo_api.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+// Registers todo_text_match(title, description, words) for the text filter on GET /todos. Both databases give the
+// same answer: a todo matches when every query word is the start of some word in its title or description, ignoring
+// case ("doc" matches "Docs" but not "undocumented"). On PostgreSQL this is a prefix tsquery served by the GIN
+// expression index from V7__todos_text_search_index; on H2 (dev and tests) it is a regular expression scan, since
+// H2's built-in full-text index only matches whole words.
+public class TodoSearchFunctionContributor implements FunctionContributor {
+
+    public static final String TEXT_MATCH = "todo_text_match";
+
+    // Letters and digits only; everything else separates words, as in PostgreSQL's 'simple' parser
+    private static final String WORD_SEPARATORS = "[^\\p{L}\\p{N}]+";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.BOOLEAN);
+
+        // ?3 is the output of searchArgument for the same dialect
+        String pattern;
+        if (functionContributions.getDialect() instanceof PostgreSQLDialect) {
+            pattern = "(to_tsvector('simple', coalesce(?1, '') || ' ' || coalesce(?2, '')) @@ to_tsquery('simple', ?3))";
+        } else {
+            pattern = "regexp_like(lower(coalesce(?1, '') || ' ' || coalesce(?2, '')), ?3)";
+        }
+        functionContributions.getFunctionRegistry().registerPattern(TEXT_MATCH, pattern, booleanType);
+    }
+
+    // The q parameter as todo_text_match's third argument, or null when it has no words (e.g. only punctuation).
+    // "Doc fix" becomes the tsquery doc:* & fix:* on PostgreSQL, and elsewhere a regular expression with one
+    // lookahead per word, each anchored at a word start. Words are letters and digits only, so neither needs escaping.
+    public static String searchArgument(String text, Dialect dialect) {
+        List<String> words = Arrays.stream(text.toLowerCase(Locale.ROOT).split(WORD_SEPARATORS))
+                .filter(word -> !word.isEmpty())
+                .toList();
+        if (words.isEmpty()) {
+            return null;
+        }
+        if (dialect instanceof PostgreSQLDialect) {
+            return words.stream().map(word -> word + ":*").collect(Collectors.joining(" & "));
+        }
+        return words.stream().map(word -> "(?=.*(^|[^\\p{L}\\p{N}])" + word + ")")
+                .collect(Collectors.joining("", "(?s)^", ""));
+    }
+}
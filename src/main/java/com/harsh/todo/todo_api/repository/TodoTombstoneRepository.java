@@ -0,0 +1,28 @@
+package com.harsh.todo.todo_api.repository;
+
+import com.harsh.todo.todo_api.dto.DeletedTodoResponse;
+import com.harsh.todo.todo_api.model.TodoTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TodoTombstoneRepository extends JpaRepository<TodoTombstone, Long> {
+
+    @Query("SELECT new com.harsh.todo.todo_api.dto.DeletedTodoResponse(tt.todoId, tt.deletedAt) " +
+            "FROM TodoTombstone tt WHERE tt.userId = :userId AND (tt.deletedAt, tt.todoId) > (:since, :sinceId) " +
+            "ORDER BY tt.deletedAt, tt.todoId")
+    List<DeletedTodoResponse> findDeletedSince(@Param("userId") Long userId,
+                                               @Param("since") LocalDateTime since,
+                                               @Param("sinceId") Long sinceId,
+                                               Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM TodoTombstone tt WHERE tt.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
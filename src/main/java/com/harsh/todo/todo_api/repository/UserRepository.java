@@ -2,10 +2,35 @@ package com.harsh.todo.todo_api.repository;
 
 import com.harsh.todo.todo_api.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u.todoCount FROM User u WHERE u.id = :id")
+    Long findTodoCountById(@Param("id") Long id);
+
+    @Query("SELECT u.todosVersion FROM User u WHERE u.id = :id")
+    Long findTodosVersionById(@Param("id") Long id);
+
+    // Creates and deletes change both the count and the list version
+    @Modifying
+    @Query("UPDATE User u SET u.todoCount = u.todoCount + :delta, u.todosVersion = u.todosVersion + 1 WHERE u.id = :id")
+    int adjustTodoCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE User u SET u.todosVersion = u.todosVersion + 1 WHERE u.id = :id")
+    int bumpTodosVersion(@Param("id") Long id);
+
+    // Only replaces the hash it was computed from, so a concurrent password change wins
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int updatePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.harsh.todo.todo_api.repository;
+
+import com.harsh.todo.todo_api.dto.TodoResponse;
+
+import java.time.LocalDateTime;
+
+// Single-todo projection that also carries what conditional requests need (version for ETag, updatedAt for Last-Modified)
+public record VersionedTodo(Long id, String title, String description, Long version, LocalDateTime updatedAt) {
+
+    public TodoResponse toResponse() {
+        return new TodoResponse(id, title, description);
+    }
+}
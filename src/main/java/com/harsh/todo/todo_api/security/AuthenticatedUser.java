@@ -0,0 +1,42 @@
+package com.harsh.todo.todo_api.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+// Security principal that carries the user id so services can scope queries without reloading the user
+public class AuthenticatedUser extends org.springframework.security.core.userdetails.User {
+
+    private final Long id;
+    private final String role;
+
+    public AuthenticatedUser(Long id, String email, String password, String role) {
+        super(email, password, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+        this.id = id;
+        this.role = role;
+    }
+
+    public static AuthenticatedUser from(com.harsh.todo.todo_api.model.User user) {
+        String role = user.getRole() != null ? user.getRole() : "USER";
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getPassword(), role);
+    }
+
+    // Returns null for tokens issued before the id/role claims were added
+    public static AuthenticatedUser fromClaims(Claims claims) {
+        Long id = claims.get(JwtService.USER_ID_CLAIM, Long.class);
+        String role = claims.get(JwtService.ROLE_CLAIM, String.class);
+        if (id == null || role == null || claims.getSubject() == null) {
+            return null;
+        }
+        return new AuthenticatedUser(id, claims.getSubject(), "", role);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRole() {
+        return role;
+    }
+}
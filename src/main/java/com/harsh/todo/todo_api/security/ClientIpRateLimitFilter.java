@@ -0,0 +1,59 @@
+package com.harsh.todo.todo_api.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Runs before JwtAuthFilter with one coarse bucket per client IP, so a flood of forged or expired bearer tokens is
+// cut off before each of them costs a signature check. Sized well above a single user's limits, since many users
+// can share an address behind NAT; the per-user and per-route limits in RateLimitFilter still apply afterwards.
+@Component
+public class ClientIpRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientIpRateLimitFilter.class);
+
+    private final RateLimiter rateLimiter;
+    private final boolean enabled;
+    private final RateLimitPolicy policy;
+
+    public ClientIpRateLimitFilter(RateLimiter rateLimiter,
+                                   @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                                   @Value("${app.rate-limit.client-ip.capacity:1000}") long capacity,
+                                   @Value("${app.rate-limit.client-ip.refill-per-second:200}") double refill) {
+        this.rateLimiter = rateLimiter;
+        this.enabled = enabled;
+        this.policy = new RateLimitPolicy("client-ip", capacity, refill);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String key = policy.name() + ":" + request.getRemoteAddr();
+        long waitNanos = rateLimiter.tryAcquire(key, policy);
+        if (waitNanos > 0) {
+            logger.debug("Rate limit '{}' exceeded for {}", policy.name(), key);
+            RateLimitFilter.tooManyRequests(response, waitNanos);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,72 @@
+package com.harsh.todo.todo_api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-node buckets. Each bucket is a single AtomicLong holding its theoretical arrival time (GCRA), updated by CAS,
+// so concurrent requests for the same key never block. Idle keys expire and the key count is capped.
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimiter implements RateLimiter, MeterBinder {
+
+    private final Ticker ticker;
+    private final Cache<String, AtomicLong> buckets;
+
+    @Autowired
+    public InMemoryRateLimiter(@Value("${app.rate-limit.max-keys:100000}") long maxKeys,
+                               @Value("${app.rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+        this(maxKeys, idleTimeout, Ticker.systemTicker());
+    }
+
+    // The ticker drives both refill and idle expiry, so tests can move time forward
+    InMemoryRateLimiter(long maxKeys, Duration idleTimeout, Ticker ticker) {
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimitPolicy policy) {
+        AtomicLong theoreticalArrival = buckets.get(key, k -> new AtomicLong(ticker.read()));
+        long interval = policy.emissionIntervalNanos();
+        long tolerance = policy.burstToleranceNanos();
+        while (true) {
+            long now = ticker.read();
+            long current = theoreticalArrival.get();
+            long arrival = current - now < 0 ? now : current;
+            long wait = arrival - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, arrival + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    public long trackedKeys() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rate.limit.keys", this, InMemoryRateLimiter::trackedKeys)
+                .description("Rate limit buckets held in memory")
+                .register(registry);
+    }
+}
@@ -0,0 +1,79 @@
+package com.harsh.todo.todo_api.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+// Shared buckets for multi-node deployments, kept in rate_limit_buckets (see V10__rate_limit_buckets).
+// Each check is one conditional UPDATE applying the same GCRA step as InMemoryRateLimiter, so nodes agree on
+// the limit without locks held across requests. Uses the nodes' wall clocks, which should be kept in sync.
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "jdbc")
+public class JdbcRateLimiter implements RateLimiter {
+
+    private static final String ACQUIRE = """
+            UPDATE rate_limit_buckets SET tat = GREATEST(tat, ?) + ?
+            WHERE bucket_key = ? AND GREATEST(tat, ?) - ? <= ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration idleTimeout;
+    private final Clock clock;
+
+    @Autowired
+    public JdbcRateLimiter(JdbcTemplate jdbcTemplate,
+                           @Value("${app.rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+        this(jdbcTemplate, idleTimeout, Clock.systemUTC());
+    }
+
+    JdbcRateLimiter(JdbcTemplate jdbcTemplate, Duration idleTimeout, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idleTimeout = idleTimeout;
+        this.clock = clock;
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimitPolicy policy) {
+        long interval = policy.emissionIntervalNanos() / 1000;
+        long tolerance = policy.burstToleranceNanos() / 1000;
+        long now = nowMicros();
+
+        if (jdbcTemplate.update(ACQUIRE, now, interval, key, now, now, tolerance) == 1) {
+            return 0;
+        }
+        List<Long> arrival = jdbcTemplate.queryForList(
+                "SELECT tat FROM rate_limit_buckets WHERE bucket_key = ?", Long.class, key);
+        if (arrival.isEmpty()) {
+            try {
+                jdbcTemplate.update("INSERT INTO rate_limit_buckets (bucket_key, tat) VALUES (?, ?)", key, now + interval);
+                return 0;
+            } catch (DuplicateKeyException e) {
+                // Another node created the bucket first; take the token through the normal path
+                return jdbcTemplate.update(ACQUIRE, now, interval, key, now, now, tolerance) == 1 ? 0 : interval * 1000;
+            }
+        }
+        long wait = Math.max(arrival.get(0), now) - now - tolerance;
+        if (wait > 0) {
+            return wait * 1000;
+        }
+        // The bucket refilled between the two statements; try once more
+        return jdbcTemplate.update(ACQUIRE, now, interval, key, now, now, tolerance) == 1 ? 0 : interval * 1000;
+    }
+
+    // Buckets idle for longer than the timeout are full again, so dropping them changes nothing
+    @Scheduled(fixedRateString = "${app.rate-limit.purge-interval:PT5M}")
+    public void purgeIdleBuckets() {
+        jdbcTemplate.update("DELETE FROM rate_limit_buckets WHERE tat < ?", nowMicros() - idleTimeout.toNanos() / 1000);
+    }
+
+    private long nowMicros() {
+        return clock.millis() * 1000;
+    }
+}
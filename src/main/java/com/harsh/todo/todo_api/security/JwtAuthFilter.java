@@ -1,5 +1,8 @@
 package com.harsh.todo.todo_api.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,6 +10,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -26,6 +30,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthFilter.class);
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
+
+    // When enabled, trust the id/role claims of a verified token instead of loading the user per request
+    @Value("${jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
 
     @Override
     protected void doFilterInternal(
@@ -45,27 +54,38 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
         final String jwt;
+        final Claims claims;
         final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             logger.warn("Authorization header missing or invalid for path: {}", requestPath);
+            meterRegistry.counter("jwt.auth.missing").increment();
             filterChain.doFilter(request, response);
             return;
         }
 
+        // Times parse/verify plus principal loading as jwt.auth{outcome}
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "skipped";
         jwt = authHeader.substring(7);
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            // Parse and verify once; everything below reads from these claims
+            claims = jwtService.extractAllClaims(jwt);
+            userEmail = claims.getSubject();
         } catch (Exception e) {
+            sample.stop(meterRegistry.timer("jwt.auth", "outcome", "invalid"));
             logger.error("Invalid JWT token: {}", e.getMessage());
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT Token");
             return;
         }
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            UserDetails userDetails = statelessPrincipal ? AuthenticatedUser.fromClaims(claims) : null;
+            if (userDetails == null) {
+                userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            }
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (jwtService.isTokenValid(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -74,10 +94,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
                 logger.info("Authenticated user '{}', setting security context.", userEmail);
+                outcome = "authenticated";
             } else {
                 logger.warn("JWT token is not valid for user: {}", userEmail);
+                outcome = "rejected";
             }
         }
+        sample.stop(meterRegistry.timer("jwt.auth", "outcome", outcome));
 
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,178 @@
+package com.harsh.todo.todo_api.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs BCrypt on a small dedicated pool with a bounded queue, so a login or registration burst can only tie up
+// (threads + queue) requests and CPU cores; anything beyond that fails fast with RejectedExecutionException.
+@Component
+public class PasswordHasher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final int strength;
+    private final Duration targetLatency;
+    private final boolean calibrateOnStartup;
+    private final Timer encodeTimer;
+    private final Timer verifyTimer;
+    private final Counter queueFullCounter;
+    private final Counter timeoutCounter;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.password.hash-threads:0}") int threads,
+                          @Value("${app.password.hash-queue-capacity:64}") int queueCapacity,
+                          @Value("${app.password.hash-timeout:5s}") Duration timeout,
+                          @Value("${app.password.bcrypt-strength:10}") int strength,
+                          @Value("${app.password.target-latency:250ms}") Duration targetLatency,
+                          @Value("${app.password.calibrate-on-startup:false}") boolean calibrateOnStartup) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = timeout;
+        this.strength = strength;
+        this.targetLatency = targetLatency;
+        this.calibrateOnStartup = calibrateOnStartup;
+
+        // By default leave half the cores to the rest of the API
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // Hash time is measured on the pool thread; the wait in the queue shows up in the callers' request timings
+        this.encodeTimer = Timer.builder("password.hash").tag("operation", "encode").register(meterRegistry);
+        this.verifyTimer = Timer.builder("password.hash").tag("operation", "verify").register(meterRegistry);
+        this.queueFullCounter = Counter.builder("password.hash.rejected").tag("reason", "queue_full").register(meterRegistry);
+        this.timeoutCounter = Counter.builder("password.hash.rejected").tag("reason", "timeout").register(meterRegistry);
+        Gauge.builder("password.hash.queued", this, PasswordHasher::queuedTasks).register(meterRegistry);
+        Gauge.builder("password.hash.active", this, PasswordHasher::activeTasks).register(meterRegistry);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return call(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    // Checks the password and, when the stored hash uses an older cost factor, re-hashes it in the same task
+    public Verification verify(CharSequence rawPassword, String encodedPassword) {
+        return call(() -> {
+            if (!verifyTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword))) {
+                return new Verification(false, null);
+            }
+            String upgraded = passwordEncoder.upgradeEncoding(encodedPassword)
+                    ? encodeTimer.record(() -> passwordEncoder.encode(rawPassword))
+                    : null;
+            return new Verification(true, upgraded);
+        });
+    }
+
+    public int queuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    public int activeTasks() {
+        return executor.getActiveCount();
+    }
+
+    private <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            queueFullCounter.increment();
+            throw e;
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeoutCounter.increment();
+            throw new RejectedExecutionException("Password hashing timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Times the configured cost factor on this host and reports the highest one that stays under the target
+    @EventListener(ApplicationReadyEvent.class)
+    public void calibrate() {
+        if (!calibrateOnStartup) {
+            return;
+        }
+        long configured = timeEncode(strength);
+        int recommended = strength;
+        long recommendedNanos = configured;
+        while (recommended > 4 && recommendedNanos > targetLatency.toNanos()) {
+            recommendedNanos = timeEncode(--recommended);
+        }
+        while (recommended < 31) {
+            long next = timeEncode(recommended + 1);
+            if (next > targetLatency.toNanos()) {
+                break;
+            }
+            recommended++;
+            recommendedNanos = next;
+        }
+        logger.info("BCrypt strength {} takes {} ms per hash (target {} ms); highest strength under target is {} ({} ms)",
+                strength, configured / 1_000_000, targetLatency.toMillis(), recommended, recommendedNanos / 1_000_000);
+        if (configured > targetLatency.toNanos()) {
+            logger.warn("Configured BCrypt strength {} exceeds the target latency; consider app.password.bcrypt-strength={}",
+                    strength, recommended);
+        }
+    }
+
+    private static long timeEncode(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode("warm-up");
+        int samples = 3;
+        long start = System.nanoTime();
+        for (int i = 0; i < samples; i++) {
+            encoder.encode("calibration-password");
+        }
+        return (System.nanoTime() - start) / samples;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public record Verification(boolean matches, String upgradedHash) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.harsh.todo.todo_api.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Runs right after JwtAuthFilter: authenticated requests are limited per user, everything else per client IP.
+// /login and /register share a strict "auth" policy (they cost a BCrypt hash); other reads and writes have their own.
+// Routes listed in app.rate-limit.routes get their own bucket, and app.rate-limit.users replaces the read/write
+// policies for individual user ids. ClientIpRateLimitFilter caps each IP before any token is verified.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+    private final RateLimiter rateLimiter;
+    private final boolean enabled;
+    private final RateLimitPolicy authPolicy;
+    private final RateLimitPolicy readPolicy;
+    private final RateLimitPolicy writePolicy;
+    private final List<RouteLimit> routeLimits;
+    private final Map<Long, RateLimitPolicy> userLimits;
+
+    public RateLimitFilter(RateLimiter rateLimiter,
+                           @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.auth.capacity:10}") long authCapacity,
+                           @Value("${app.rate-limit.auth.refill-per-second:0.5}") double authRefill,
+                           @Value("${app.rate-limit.read.capacity:200}") long readCapacity,
+                           @Value("${app.rate-limit.read.refill-per-second:50}") double readRefill,
+                           @Value("${app.rate-limit.write.capacity:50}") long writeCapacity,
+                           @Value("${app.rate-limit.write.refill-per-second:10}") double writeRefill,
+                           @Value("${app.rate-limit.routes:POST /todos/import=5:0.05,GET /todos/export=5:0.05}") String[] routes,
+                           @Value("${app.rate-limit.users:}") String[] users) {
+        this.rateLimiter = rateLimiter;
+        this.enabled = enabled;
+        this.authPolicy = new RateLimitPolicy("auth", authCapacity, authRefill);
+        this.readPolicy = new RateLimitPolicy("read", readCapacity, readRefill);
+        this.writePolicy = new RateLimitPolicy("write", writeCapacity, writeRefill);
+        this.routeLimits = parseRoutes(routes);
+        this.userLimits = parseUsers(users);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Long userId = currentUserId();
+        RateLimitPolicy policy = policyFor(request, userId);
+        String key = policy.name() + ":" + (userId != null ? "user:" + userId : "ip:" + request.getRemoteAddr());
+        long waitNanos = rateLimiter.tryAcquire(key, policy);
+        if (waitNanos > 0) {
+            logger.debug("Rate limit '{}' exceeded for {}", policy.name(), key);
+            tooManyRequests(response, waitNanos);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // 429 with Retry-After rounded up to whole seconds; shared with ClientIpRateLimitFilter
+    static void tooManyRequests(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(429);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"Too many requests\"}");
+    }
+
+    // Route overrides win over per-user overrides, which win over the read/write categories
+    private RateLimitPolicy policyFor(HttpServletRequest request, Long userId) {
+        String path = request.getServletPath();
+        String method = request.getMethod();
+        if (path.equals("/register") || path.equals("/login")) {
+            return authPolicy;
+        }
+        for (RouteLimit route : routeLimits) {
+            if (route.matches(method, path)) {
+                return route.policy();
+            }
+        }
+        if (userId != null && userLimits.containsKey(userId)) {
+            return userLimits.get(userId);
+        }
+        boolean read = HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+        return read ? readPolicy : writePolicy;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        // Behind a proxy, set server.forward-headers-strategy so anonymous callers are keyed by the client's address
+        return authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user ? user.getId() : null;
+    }
+
+    // Entries look like "POST /todos/import=5:0.05"; the method may be * and the path an Ant pattern
+    private static List<RouteLimit> parseRoutes(String[] entries) {
+        List<RouteLimit> routes = new ArrayList<>();
+        for (String entry : entries) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] routeAndLimit = splitEntry(entry);
+            String[] methodAndPath = routeAndLimit[0].split("\\s+");
+            if (methodAndPath.length != 2) {
+                throw new IllegalArgumentException("Rate limit route '" + entry + "' must look like 'METHOD /path=capacity:refill'");
+            }
+            routes.add(new RouteLimit(methodAndPath[0].toUpperCase(), methodAndPath[1],
+                    parsePolicy("route " + routeAndLimit[0], routeAndLimit[1])));
+        }
+        return routes;
+    }
+
+    // Entries look like "42=1000:200" (user id = capacity:refill-per-second)
+    private static Map<Long, RateLimitPolicy> parseUsers(String[] entries) {
+        Map<Long, RateLimitPolicy> users = new HashMap<>();
+        for (String entry : entries) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] userAndLimit = splitEntry(entry);
+            try {
+                Long userId = Long.parseLong(userAndLimit[0]);
+                users.put(userId, parsePolicy("user " + userId, userAndLimit[1]));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Rate limit user '" + entry + "' must look like 'id=capacity:refill'");
+            }
+        }
+        return users;
+    }
+
+    private static String[] splitEntry(String entry) {
+        int separator = entry.lastIndexOf('=');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Rate limit override '" + entry + "' is missing '=capacity:refill'");
+        }
+        return new String[]{entry.substring(0, separator).trim(), entry.substring(separator + 1).trim()};
+    }
+
+    private static RateLimitPolicy parsePolicy(String name, String limit) {
+        String[] parts = limit.split(":");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Rate limit '" + name + "' must be given as capacity:refill-per-second");
+        }
+        return new RateLimitPolicy(name, Long.parseLong(parts[0].trim()), Double.parseDouble(parts[1].trim()));
+    }
+
+    private record RouteLimit(String method, String pattern, RateLimitPolicy policy) {
+
+        boolean matches(String requestMethod, String path) {
+            return (method.equals("*") || method.equalsIgnoreCase(requestMethod)) && PATHS.match(pattern, path);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.harsh.todo.todo_api.security;
+
+// Token bucket of the given capacity refilled continuously at refillPerSecond, expressed in GCRA terms:
+// one token is emitted every emissionIntervalNanos and a full bucket is a burst tolerance of (capacity - 1) intervals.
+public record RateLimitPolicy(String name, long capacity, double refillPerSecond) {
+
+    public RateLimitPolicy {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit '" + name + "' needs capacity >= 1 and refill-per-second > 0");
+        }
+    }
+
+    public long emissionIntervalNanos() {
+        return Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+    }
+
+    public long burstToleranceNanos() {
+        return emissionIntervalNanos() * (capacity - 1);
+    }
+}
@@ -0,0 +1,9 @@
+package com.harsh.todo.todo_api.security;
+
+// Backend for RateLimitFilter; app.rate-limit.store selects the in-memory or the shared JDBC implementation
+public interface RateLimiter {
+
+    // Takes one token for the key, returning 0 when the request may proceed,
+    // otherwise the nanoseconds until a token becomes available
+    long tryAcquire(String key, RateLimitPolicy policy);
+}
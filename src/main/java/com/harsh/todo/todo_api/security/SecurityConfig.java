@@ -1,6 +1,10 @@
 package com.harsh.todo.todo_api.security;
 
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -21,14 +25,25 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final ClientIpRateLimitFilter clientIpRateLimitFilter;
     private final UserDetailsService userDetailsService;
     private final PasswordEncoder passwordEncoder;
 
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // The SSE stream's completion dispatch belongs to a request that was already authorized;
+                        // JwtAuthFilter does not run again on it. Async dispatches elsewhere stay authenticated.
+                        .requestMatchers(SecurityConfig::isTodoStreamAsyncDispatch).permitAll()
                         // Allow public access to registration, login, and all documentation endpoints
                         .requestMatchers(
                                 "/register",
@@ -39,17 +54,51 @@ public class SecurityConfig {
                                 "/v3/api-docs",
                                 "/v3/api-docs/**",
                                 "/swagger-ui.html",
-                                "/swagger-ui/**"
+                                "/swagger-ui/**",
+                                "/actuator/health"
                         ).permitAll()
+                        // Metrics are only served on the separate management listener (management.server.port);
+                        // every other actuator endpoint on the public listener is refused
+                        .requestMatchers(this::isManagementPortRequest).permitAll()
+                        .requestMatchers("/actuator/**").denyAll()
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Per-IP cap before any token is verified, then per-user/per-route limits once the caller is known
+                .addFilterBefore(clientIpRateLimitFilter, JwtAuthFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthFilter.class);
 
         return http.build();
     }
 
+    private static boolean isTodoStreamAsyncDispatch(HttpServletRequest request) {
+        return request.getDispatcherType() == DispatcherType.ASYNC
+                && request.getRequestURI().equals(request.getContextPath() + "/todos/stream");
+    }
+
+    // Requests that arrived on the management listener; never true when management shares the public port
+    private boolean isManagementPortRequest(HttpServletRequest request) {
+        return managementPort > 0 && managementPort != serverPort && request.getLocalPort() == managementPort;
+    }
+
+    // Only run the rate limiter inside the security chain, after authentication; as a plain servlet filter
+    // it would run first, see no user, and OncePerRequestFilter would then skip the in-chain pass
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ClientIpRateLimitFilter> clientIpRateLimitFilterRegistration(ClientIpRateLimitFilter filter) {
+        FilterRegistrationBean<ClientIpRateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
@@ -0,0 +1,58 @@
+package com.harsh.todo.todo_api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.harsh.todo.todo_api.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Bounded (W-TinyLFU) cache in front of UserRepository.findByEmail, shared by authentication and the services
+@Component
+public class UserIdentityCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final Cache<String, AuthenticatedUser> cache;
+
+    public UserIdentityCache(UserRepository userRepository,
+                             @Value("${app.user-cache.max-size:10000}") long maxSize,
+                             @Value("${app.user-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<AuthenticatedUser> findByEmail(String email) {
+        AuthenticatedUser cached = cache.get(email, key -> userRepository.findByEmail(key)
+                .map(AuthenticatedUser::from)
+                .orElse(null));
+        if (cached == null) {
+            return Optional.empty();
+        }
+        // Hand out a copy: Spring Security may erase credentials on the principal it is given
+        return Optional.of(new AuthenticatedUser(cached.getId(), cached.getUsername(), cached.getPassword(), cached.getRole()));
+    }
+
+    // Must be called whenever a user's email, password or role changes
+    public void evict(String email) {
+        cache.invalidate(email);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "user.identity");
+    }
+}
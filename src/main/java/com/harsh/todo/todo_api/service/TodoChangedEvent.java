@@ -0,0 +1,13 @@
+package com.harsh.todo.todo_api.service;
+
+import java.util.List;
+
+// Published by TodoService inside the write transaction; listeners act on it only after commit
+public record TodoChangedEvent(Long userId, Type type, List<Long> ids) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED,
+        // Bulk import; ids are omitted and clients should catch up through GET /todos/changes
+        IMPORTED
+    }
+}
@@ -0,0 +1,40 @@
+package com.harsh.todo.todo_api.service;
+
+import com.harsh.todo.todo_api.repository.TodoRow;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Keyset position (timestamp, id) serialized as an opaque URL-safe token.
+// Used for list cursors (createdAt) and for sync watermarks (updatedAt / deletedAt).
+record TodoCursor(LocalDateTime timestamp, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    static TodoCursor of(TodoRow row) {
+        return new TodoCursor(row.createdAt(), row.id());
+    }
+
+    boolean isAfter(TodoCursor other) {
+        int byTime = timestamp.compareTo(other.timestamp);
+        return byTime > 0 || (byTime == 0 && id > other.id);
+    }
+
+    String encode() {
+        String raw = timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TodoCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new TodoCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
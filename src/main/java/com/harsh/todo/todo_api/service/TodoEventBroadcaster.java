@@ -0,0 +1,183 @@
+package com.harsh.todo.todo_api.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// In-process fan-out of committed todo changes to each user's open SSE streams.
+// Emitters are async, so an idle stream holds no thread; sends run on virtual threads, at most one per stream,
+// and each stream buffers a bounded number of events, dropping the oldest and telling the client to resync.
+@Component
+public class TodoEventBroadcaster implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoEventBroadcaster.class);
+
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${app.todos.stream.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.todos.stream.timeout:30m}")
+    private Duration timeout;
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscription subscription = new Subscription(userId, emitter);
+        subscriptions.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+
+        emitter.onCompletion(() -> remove(subscription));
+        // Completing on timeout ends the response cleanly instead of leaving it to an async-timeout error dispatch
+        emitter.onTimeout(() -> {
+            remove(subscription);
+            emitter.complete();
+        });
+        emitter.onError(e -> remove(subscription));
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTodoChanged(TodoChangedEvent event) {
+        Set<Subscription> userSubscriptions = subscriptions.get(event.userId());
+        if (userSubscriptions == null) {
+            return;
+        }
+        for (Subscription subscription : userSubscriptions) {
+            subscription.enqueue(SseEmitter.event()
+                    .name(event.type().name().toLowerCase())
+                    .data(Map.of("ids", event.ids())));
+        }
+    }
+
+    // Comment frames keep proxies from closing idle streams and surface dead connections
+    @Scheduled(fixedRateString = "${app.todos.stream.heartbeat-interval:PT25S}")
+    public void sendHeartbeats() {
+        for (Set<Subscription> userSubscriptions : subscriptions.values()) {
+            for (Subscription subscription : userSubscriptions) {
+                subscription.enqueueHeartbeat();
+            }
+        }
+    }
+
+    // Ends every open stream and stops the sender, so shutdown neither waits on nor leaks stream threads
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (Set<Subscription> userSubscriptions : subscriptions.values()) {
+            for (Subscription subscription : userSubscriptions) {
+                subscription.emitter.complete();
+            }
+        }
+        subscriptions.clear();
+        sender.shutdown();
+        if (!sender.awaitTermination(5, TimeUnit.SECONDS)) {
+            sender.shutdownNow();
+        }
+    }
+
+    public int openStreams() {
+        return subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todos.stream.open", this, TodoEventBroadcaster::openStreams)
+                .description("Open SSE todo change streams")
+                .register(registry);
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.userId, (id, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private class Subscription {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<SseEmitter.SseEventBuilder> queue = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private boolean overflowed;
+
+        Subscription(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            synchronized (queue) {
+                if (queue.size() >= bufferSize) {
+                    queue.pollFirst();
+                    overflowed = true;
+                }
+                queue.addLast(event);
+            }
+            scheduleDrain();
+        }
+
+        void enqueueHeartbeat() {
+            synchronized (queue) {
+                if (!queue.isEmpty()) {
+                    return;
+                }
+                queue.addLast(SseEmitter.event().comment("ping"));
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                boolean lostEvents;
+                synchronized (queue) {
+                    event = queue.pollFirst();
+                    lostEvents = overflowed;
+                    overflowed = false;
+                    if (event == null) {
+                        draining.set(false);
+                        return;
+                    }
+                }
+                try {
+                    if (lostEvents) {
+                        // The client missed events; it should catch up through GET /todos/changes
+                        emitter.send(SseEmitter.event().name("resync").data(Map.of("reason", "overflow")));
+                    }
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    logger.debug("Dropping todo stream for user {}: {}", userId, e.getMessage());
+                    remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
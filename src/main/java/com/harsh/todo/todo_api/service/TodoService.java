@@ -1,39 +1,130 @@
 package com.harsh.todo.todo_api.service;
 
+import com.harsh.todo.todo_api.dto.CursorTodoResponse;
+import com.harsh.todo.todo_api.dto.DeletedTodoResponse;
+import com.harsh.todo.todo_api.dto.TodoChangesResponse;
+import com.harsh.todo.todo_api.dto.TodoSyncItem;
+import com.harsh.todo.todo_api.dto.TodoBatchUpdateDTO;
+import com.harsh.todo.todo_api.dto.TodoPatchDTO;
 import com.harsh.todo.todo_api.dto.TodoDTO;
 import com.harsh.todo.todo_api.dto.TodoResponse;
 import com.harsh.todo.todo_api.dto.PaginatedTodoResponse;
+import com.harsh.todo.todo_api.dto.SlicedTodoResponse;
 import com.harsh.todo.todo_api.model.Todo;
-import com.harsh.todo.todo_api.model.User;
+import com.harsh.todo.todo_api.model.TodoTombstone;
+import com.harsh.todo.todo_api.repository.TodoFilter;
 import com.harsh.todo.todo_api.repository.TodoRepository;
+import com.harsh.todo.todo_api.repository.TodoRow;
+import com.harsh.todo.todo_api.repository.TodoTombstoneRepository;
 import com.harsh.todo.todo_api.repository.UserRepository;
+import com.harsh.todo.todo_api.repository.VersionedTodo;
+import com.harsh.todo.todo_api.security.AuthenticatedUser;
+import com.harsh.todo.todo_api.security.UserIdentityCache;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+// Every public method is timed as todo.service{class, method, exception}
 @Service
+@Timed("todo.service")
 public class TodoService {
 
+    // todos.title and todos.description are VARCHAR(255)
+    private static final int MAX_TEXT_LENGTH = 255;
+
     @Autowired
     private TodoRepository todoRepository;
 
     @Autowired
     private UserRepository userRepository;
 
-    private User getCurrentUser() {
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @Autowired
+    private TodoTombstoneRepository todoTombstoneRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TodoEventBroadcaster eventBroadcaster;
+
+    // Read list totals from users.todo_count instead of counting the user's todos on every page
+    @Value("${app.todos.use-materialized-count:false}")
+    private boolean useMaterializedCount;
+
+    @Value("${app.jpa.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.todos.batch.max-size:10000}")
+    private int maxBatchSize;
+
+    @Value("${app.todos.import.max-rows:1000000}")
+    private long maxImportRows;
+
+    @Value("${app.todos.export.chunk-size:1000}")
+    private int exportChunkSize;
+
+    // Writes commit slightly after their updatedAt is stamped; sync watermarks stay this far behind "now" so none are skipped
+    @Value("${app.todos.sync.commit-lag:5s}")
+    private Duration syncCommitLag;
+
+    // Deletions older than this are purged; clients whose watermark is older must resync from scratch
+    @Value("${app.todos.sync.tombstone-retention:30d}")
+    private Duration tombstoneRetention;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private AuthenticatedUser getCurrentUser() {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
+        return userIdentityCache.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    private TodoResponse convertToResponse(Todo todo) {
+    // The JWT filter puts the user id on the principal, so the users table is only hit as a fallback
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new RuntimeException("Unauthorized");
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal.getId();
+        }
+        return getCurrentUser().getId();
+    }
+
+    // Package-private and static so TodoMappingBenchmark times this exact mapping
+    static TodoResponse convertToResponse(Todo todo) {
         return new TodoResponse(
                 todo.getId(),
                 todo.getTitle(),
@@ -41,57 +132,455 @@ public class TodoService {
         );
     }
 
+    @Transactional
     public TodoResponse createTodo(TodoDTO todoDTO) {
-        User currentUser = getCurrentUser();
+        Long userId = getCurrentUserId();
 
         Todo todo = new Todo();
         todo.setTitle(todoDTO.getTitle());
         todo.setDescription(todoDTO.getDescription());
         todo.setCompleted(todoDTO.isCompleted());
-        todo.setUser(currentUser);
+        // Reference proxy only; no select is issued for the owning user
+        todo.setUser(userRepository.getReferenceById(userId));
 
         Todo savedTodo = todoRepository.save(todo);
+        userRepository.adjustTodoCount(userId, 1);
+        publish(userId, TodoChangedEvent.Type.CREATED, List.of(savedTodo.getId()));
         return convertToResponse(savedTodo);
     }
 
-    public PaginatedTodoResponse getAllTodosPaginated(int page, int limit) {
-        User currentUser = getCurrentUser();
+    // Columns clients may sort the offset/slice listings by
+    private static final Set<String> SORTABLE_FIELDS = Set.of("createdAt", "updatedAt", "title");
+
+    // Read-only transactions run with flushing disabled; list queries project straight into TodoResponse
+    @Transactional(readOnly = true)
+    public PaginatedTodoResponse getAllTodosPaginated(int page, int limit, TodoFilter filter, String sortBy, String direction) {
+        Long userId = getCurrentUserId();
 
         // Convert page to 0-based index for Spring Data
-        Pageable pageable = PageRequest.of(page - 1, limit, Sort.by("createdAt").descending());
-        Page<Todo> todoPage = todoRepository.findByUser(currentUser, pageable);
+        Pageable pageable = PageRequest.of(page - 1, limit, resolveSort(sortBy, direction));
+
+        if (!filter.isEmpty()) {
+            Page<TodoResponse> todoPage = todoRepository.searchResponses(userId, filter, pageable);
+            return new PaginatedTodoResponse(todoPage.getContent(), page, limit, todoPage.getTotalElements());
+        }
+
+        if (useMaterializedCount) {
+            Slice<TodoResponse> todoSlice = todoRepository.findResponseSliceByUserId(userId, pageable);
+            Long total = userRepository.findTodoCountById(userId);
+            return new PaginatedTodoResponse(todoSlice.getContent(), page, limit, total != null ? total : 0);
+        }
+
+        Page<TodoResponse> todoPage = todoRepository.findResponsesByUserId(userId, pageable);
+        return new PaginatedTodoResponse(todoPage.getContent(), page, limit, todoPage.getTotalElements());
+    }
+
+    @Transactional(readOnly = true)
+    public SlicedTodoResponse getTodosSlice(int page, int limit, TodoFilter filter, String sortBy, String direction) {
+        Long userId = getCurrentUserId();
+
+        Pageable pageable = PageRequest.of(page - 1, limit, resolveSort(sortBy, direction));
+        Slice<TodoResponse> todoSlice = filter.isEmpty()
+                ? todoRepository.findResponseSliceByUserId(userId, pageable)
+                : todoRepository.searchResponseSlice(userId, filter, pageable);
+
+        return new SlicedTodoResponse(todoSlice.getContent(), page, limit, todoSlice.hasNext());
+    }
+
+    // Streaming variant of the offset listings for large pages: rows reach the consumer as the JDBC cursor reads them,
+    // so memory stays flat whatever the limit. The total, when asked for, is counted before the first row is handed
+    // over and in the same snapshot as the rows, so a failing count never cuts a started response short.
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public StreamedPage streamTodosPage(int page, int limit, TodoFilter filter, String sortBy, String direction,
+                                        boolean countTotal, Consumer<TodoResponse> consumer) {
+        Long userId = getCurrentUserId();
+        Pageable pageable = PageRequest.of(page - 1, limit, resolveSort(sortBy, direction));
+        Long total = countTotal ? countTodos(userId, filter) : null;
+
+        // One extra row tells whether there is a next page
+        try (Stream<TodoResponse> rows = todoRepository.streamResponses(userId, filter, pageable, limit + 1)) {
+            Iterator<TodoResponse> iterator = rows.iterator();
+            for (int written = 0; iterator.hasNext(); written++) {
+                TodoResponse todo = iterator.next();
+                if (written == limit) {
+                    return new StreamedPage(total, true);
+                }
+                consumer.accept(todo);
+            }
+            return new StreamedPage(total, false);
+        }
+    }
+
+    // total is null unless it was asked for
+    public record StreamedPage(Long total, boolean hasNext) {
+    }
+
+    private long countTodos(Long userId, TodoFilter filter) {
+        if (!filter.isEmpty()) {
+            return todoRepository.countMatching(userId, filter);
+        }
+        if (useMaterializedCount) {
+            Long total = userRepository.findTodoCountById(userId);
+            return total != null ? total : 0;
+        }
+        return todoRepository.countByUserId(userId);
+    }
 
-        List<TodoResponse> todos = todoPage.getContent().stream()
-                .map(this::convertToResponse)
+    // Cursor mode always walks (createdAt, id) newest first, so it takes filters but no sort
+    @Transactional(readOnly = true)
+    public CursorTodoResponse getAllTodosAfter(String after, int limit, TodoFilter filter) {
+        Long userId = getCurrentUserId();
+        TodoCursor cursor = after == null || after.isEmpty() ? null : TodoCursor.decode(after);
+
+        // Fetch one extra row to learn whether another page exists
+        List<TodoRow> rows;
+        if (!filter.isEmpty()) {
+            rows = todoRepository.searchRows(userId, filter,
+                    cursor != null ? cursor.timestamp() : null, cursor != null ? cursor.id() : null, limit + 1);
+        } else if (cursor == null) {
+            rows = todoRepository.findRowsByUserId(userId, PageRequest.of(0, limit + 1));
+        } else {
+            rows = todoRepository.findRowsByUserIdAfter(userId, cursor.timestamp(), cursor.id(), PageRequest.of(0, limit + 1));
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<TodoRow> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? TodoCursor.of(pageRows.get(limit - 1)).encode() : null;
+
+        List<TodoResponse> todos = pageRows.stream()
+                .map(row -> new TodoResponse(row.id(), row.title(), row.description()))
                 .collect(Collectors.toList());
 
-        return new PaginatedTodoResponse(todos, page, limit, todoPage.getTotalElements());
+        return new CursorTodoResponse(todos, limit, nextCursor);
     }
 
-    public TodoResponse getTodoById(Long id) {
-        User currentUser = getCurrentUser();
-        Todo todo = todoRepository.findByIdAndUser(id, currentUser)
+    private Sort resolveSort(String sortBy, String direction) {
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new RuntimeException("Invalid sort field: " + sortBy);
+        }
+        if (!"asc".equalsIgnoreCase(direction) && !"desc".equalsIgnoreCase(direction)) {
+            throw new RuntimeException("Invalid sort direction: " + direction);
+        }
+        // id breaks ties (rows created in one batch share createdAt) so offset pages neither repeat nor skip rows
+        return Sort.by(Sort.Direction.fromString(direction), sortBy, "id");
+    }
+
+    @Transactional(readOnly = true)
+    public TodoChangesResponse getChangesSince(String since, int limit) {
+        Long userId = getCurrentUserId();
+        LocalDateTime now = LocalDateTime.now();
+        TodoCursor watermark = since == null || since.isEmpty() ? null : TodoCursor.decode(since);
+        if (watermark != null && watermark.timestamp().isBefore(now.minus(tombstoneRetention))) {
+            throw new RuntimeException("Resync required");
+        }
+
+        // Both streams are ordered by (timestamp, id); fetch limit + 1 of each and merge the first limit
+        Pageable fetch = PageRequest.of(0, limit + 1);
+        List<TodoSyncItem> changed;
+        List<DeletedTodoResponse> deleted;
+        if (watermark == null) {
+            // Initial sync: the whole list, and no deletions to report
+            changed = todoRepository.findChangedSince(userId, LocalDateTime.of(1970, 1, 1, 0, 0), 0L, fetch);
+            deleted = List.of();
+        } else {
+            changed = todoRepository.findChangedSince(userId, watermark.timestamp(), watermark.id(), fetch);
+            deleted = todoTombstoneRepository.findDeletedSince(userId, watermark.timestamp(), watermark.id(), fetch);
+        }
+
+        List<TodoSyncItem> changedPage = new ArrayList<>();
+        List<DeletedTodoResponse> deletedPage = new ArrayList<>();
+        TodoCursor last = null;
+        int c = 0;
+        int d = 0;
+        while (changedPage.size() + deletedPage.size() < limit && (c < changed.size() || d < deleted.size())) {
+            TodoCursor nextChanged = c < changed.size()
+                    ? new TodoCursor(changed.get(c).getUpdatedAt(), changed.get(c).getId()) : null;
+            TodoCursor nextDeleted = d < deleted.size()
+                    ? new TodoCursor(deleted.get(d).getDeletedAt(), deleted.get(d).getId()) : null;
+            if (nextDeleted == null || (nextChanged != null && nextDeleted.isAfter(nextChanged))) {
+                changedPage.add(changed.get(c++));
+                last = nextChanged;
+            } else {
+                deletedPage.add(deleted.get(d++));
+                last = nextDeleted;
+            }
+        }
+
+        boolean hasMore = c < changed.size() || d < deleted.size();
+        // A cut page resumes right after its last item; a complete one moves up to (now - lag), which may resend
+        // a few recent items but never skips a write that committed late
+        TodoCursor next = hasMore ? last : new TodoCursor(now.minus(syncCommitLag), 0L);
+        return new TodoChangesResponse(changedPage, deletedPage, next.encode(), hasMore);
+    }
+
+    @Scheduled(fixedDelayString = "${app.todos.sync.tombstone-purge-interval:PT1H}")
+    @Transactional
+    public void purgeExpiredTombstones() {
+        todoTombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(tombstoneRetention));
+    }
+
+    @Transactional(readOnly = true)
+    public VersionedTodo getVersionedTodo(Long id) {
+        Long userId = getCurrentUserId();
+        return todoRepository.findVersionedByIdAndUserId(id, userId)
                 .orElseThrow(() -> new RuntimeException("Todo not found or access denied"));
-        return convertToResponse(todo);
     }
 
+    // Identifies the current state of the caller's whole list; changes whenever any of their todos does
+    @Transactional(readOnly = true)
+    public String getTodoListVersion() {
+        Long userId = getCurrentUserId();
+        Long version = userRepository.findTodosVersionById(userId);
+        return userId + "-" + (version != null ? version : 0);
+    }
+
+    @Transactional
     public TodoResponse updateTodo(Long id, TodoDTO todoDTO) {
-        User currentUser = getCurrentUser();
-        Todo todo = todoRepository.findByIdAndUser(id, currentUser)
-                .orElseThrow(() -> new RuntimeException("Todo not found or access denied"));
+        return updateTodo(id, todoDTO, null);
+    }
 
-        todo.setTitle(todoDTO.getTitle());
-        todo.setDescription(todoDTO.getDescription());
-        todo.setCompleted(todoDTO.isCompleted());
+    // expectedVersion is optional; when given, the update only applies if nobody changed the todo meanwhile
+    @Transactional
+    public TodoResponse updateTodo(Long id, TodoDTO todoDTO, Long expectedVersion) {
+        Long userId = getCurrentUserId();
+        LocalDateTime now = LocalDateTime.now();
+
+        int updated = expectedVersion == null
+                ? todoRepository.updateByIdAndUserId(id, userId,
+                        todoDTO.getTitle(), todoDTO.getDescription(), todoDTO.isCompleted(), now)
+                : todoRepository.updateByIdAndUserIdAndVersion(id, userId, expectedVersion,
+                        todoDTO.getTitle(), todoDTO.getDescription(), todoDTO.isCompleted(), now);
+        if (updated == 0) {
+            throw notFoundOrConflict(id, userId, expectedVersion);
+        }
+        userRepository.bumpTodosVersion(userId);
+        publish(userId, TodoChangedEvent.Type.UPDATED, List.of(id));
 
-        Todo updatedTodo = todoRepository.save(todo);
-        return convertToResponse(updatedTodo);
+        return new TodoResponse(id, todoDTO.getTitle(), todoDTO.getDescription());
     }
 
+    @Transactional
+    public TodoResponse patchTodo(Long id, TodoPatchDTO patch) {
+        return patchTodo(id, patch, null);
+    }
+
+    @Transactional
+    public TodoResponse patchTodo(Long id, TodoPatchDTO patch, Long expectedVersion) {
+        if (!patch.isTitlePresent() && !patch.isDescriptionPresent() && !patch.isCompletedPresent()) {
+            throw new RuntimeException("Patch must contain at least one field");
+        }
+        // Only description is nullable; an explicit null there clears it
+        if (patch.isTitlePresent() && (patch.getTitle() == null || patch.getTitle().isBlank())) {
+            throw new RuntimeException("Patch must not clear title");
+        }
+        if (patch.isCompletedPresent() && patch.getCompleted() == null) {
+            throw new RuntimeException("Patch must not set completed to null");
+        }
+        Long userId = getCurrentUserId();
+        boolean clearDescription = patch.isDescriptionPresent() && patch.getDescription() == null;
+
+        // The write hands back the title and description the response needs, so there is no separate read
+        TodoResponse patched = todoRepository.patchReturningResponse(id, userId, expectedVersion,
+                        patch.getTitle(), patch.getDescription(), clearDescription, patch.getCompleted(),
+                        LocalDateTime.now())
+                .orElseThrow(() -> notFoundOrConflict(id, userId, expectedVersion));
+        userRepository.bumpTodosVersion(userId);
+        publish(userId, TodoChangedEvent.Type.UPDATED, List.of(id));
+        return patched;
+    }
+
+    @Transactional
+    public List<TodoResponse> createTodos(List<TodoDTO> todoDTOs) {
+        checkBatchSize(todoDTOs.size());
+        checkBatchTitles(todoDTOs.stream().map(TodoDTO::getTitle).collect(Collectors.toList()));
+        Long userId = getCurrentUserId();
+
+        List<TodoResponse> created = new ArrayList<>(todoDTOs.size());
+        for (int i = 0; i < todoDTOs.size(); i++) {
+            TodoDTO todoDTO = todoDTOs.get(i);
+            Todo todo = new Todo();
+            todo.setTitle(todoDTO.getTitle());
+            todo.setDescription(todoDTO.getDescription());
+            todo.setCompleted(todoDTO.isCompleted());
+            todo.setUser(userRepository.getReferenceById(userId));
+            entityManager.persist(todo);
+            created.add(convertToResponse(todo));
+
+            // Send each full JDBC batch and drop it from the persistence context to keep memory flat
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        userRepository.adjustTodoCount(userId, todoDTOs.size());
+        publish(userId, TodoChangedEvent.Type.CREATED, created.stream().map(TodoResponse::getId).collect(Collectors.toList()));
+        return created;
+    }
+
+    @Transactional
+    public List<TodoResponse> updateTodos(List<TodoBatchUpdateDTO> updates) {
+        checkBatchSize(updates.size());
+        checkBatchTitles(updates.stream().map(TodoBatchUpdateDTO::getTitle).collect(Collectors.toList()));
+        if (updates.stream().anyMatch(update -> update.getId() == null)) {
+            throw new RuntimeException("Invalid batch item: id is required");
+        }
+        Long userId = getCurrentUserId();
+
+        List<Long> ids = updates.stream().map(TodoBatchUpdateDTO::getId).collect(Collectors.toList());
+        Map<Long, Todo> todos = todoRepository.findByIdInAndUserId(ids, userId).stream()
+                .collect(Collectors.toMap(Todo::getId, Function.identity()));
+        if (todos.size() != new HashSet<>(ids).size()) {
+            throw new RuntimeException("Todo not found or access denied");
+        }
+
+        List<TodoResponse> updated = new ArrayList<>(updates.size());
+        for (TodoBatchUpdateDTO update : updates) {
+            Todo todo = todos.get(update.getId());
+            todo.setTitle(update.getTitle());
+            todo.setDescription(update.getDescription());
+            todo.setCompleted(update.isCompleted());
+            updated.add(convertToResponse(todo));
+        }
+        // Dirty entities are written as batched UPDATEs on flush
+        entityManager.flush();
+        userRepository.bumpTodosVersion(userId);
+        publish(userId, TodoChangedEvent.Type.UPDATED, new ArrayList<>(todos.keySet()));
+        return updated;
+    }
+
+    @Transactional
+    public void deleteTodos(List<Long> ids) {
+        checkBatchSize(ids.size());
+        Long userId = getCurrentUserId();
+
+        int distinctIds = new HashSet<>(ids).size();
+        int deleted = todoRepository.deleteByIdInAndUserId(ids, userId);
+        if (deleted != distinctIds) {
+            // Roll back the partial delete so the batch is all-or-nothing
+            throw new RuntimeException("Todo not found or access denied");
+        }
+        userRepository.adjustTodoCount(userId, -deleted);
+
+        // Tombstones have assigned ids, so persist() inserts them in JDBC batches without a prior select
+        LocalDateTime now = LocalDateTime.now();
+        for (Long id : new HashSet<>(ids)) {
+            entityManager.persist(new TodoTombstone(id, userId, now));
+        }
+        publish(userId, TodoChangedEvent.Type.DELETED, new ArrayList<>(new HashSet<>(ids)));
+    }
+
+    // Every todo of the caller, oldest first, read in keyset chunks; returns the number of rows. Each chunk is its own
+    // short query, so a slow client stalls only its request thread, never a pooled connection. Not one snapshot:
+    // todos written during the export appear in it if their id sorts after the chunk being written.
+    public long exportTodos(Consumer<TodoSyncItem> consumer) {
+        Long userId = getCurrentUserId();
+        long rows = 0;
+        Long afterId = 0L;
+        while (true) {
+            List<TodoSyncItem> chunk = todoRepository.findSyncItemsByUserIdAfter(userId, afterId,
+                    PageRequest.of(0, exportChunkSize));
+            for (TodoSyncItem todo : chunk) {
+                consumer.accept(todo);
+            }
+            rows += chunk.size();
+            if (chunk.size() < exportChunkSize) {
+                return rows;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+    }
+
+    // Inserts todos as the iterator parses them, in JDBC batches, all in one transaction; returns the number imported.
+    // The connection is held while the iterator is drained, so it should read from a local source (the controller
+    // spools uploads to disk first), never straight from a client connection.
+    @Transactional
+    public long importTodos(Iterator<TodoDTO> todoDTOs) {
+        Long userId = getCurrentUserId();
+
+        long imported = 0;
+        while (todoDTOs.hasNext()) {
+            TodoDTO todoDTO = todoDTOs.next();
+            if (imported == maxImportRows) {
+                throw new RuntimeException("Import must contain at most " + maxImportRows + " todos");
+            }
+            if (todoDTO.getTitle() == null || todoDTO.getTitle().isBlank()) {
+                throw new RuntimeException("Invalid import row " + (imported + 1) + ": title is required");
+            }
+            // Checked here so an over-long row is a 400, not a constraint violation at the next flush
+            if (todoDTO.getTitle().length() > MAX_TEXT_LENGTH) {
+                throw new RuntimeException("Invalid import row " + (imported + 1) + ": title too long");
+            }
+            if (todoDTO.getDescription() != null && todoDTO.getDescription().length() > MAX_TEXT_LENGTH) {
+                throw new RuntimeException("Invalid import row " + (imported + 1) + ": description too long");
+            }
+            Todo todo = new Todo();
+            todo.setTitle(todoDTO.getTitle());
+            todo.setDescription(todoDTO.getDescription());
+            todo.setCompleted(todoDTO.isCompleted());
+            todo.setUser(userRepository.getReferenceById(userId));
+            entityManager.persist(todo);
+            imported++;
+
+            if (imported % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        if (imported > 0) {
+            userRepository.adjustTodoCount(userId, imported);
+            publish(userId, TodoChangedEvent.Type.IMPORTED, List.of());
+        }
+        return imported;
+    }
+
+    private void checkBatchSize(int size) {
+        if (size == 0 || size > maxBatchSize) {
+            throw new RuntimeException("Batch must contain between 1 and " + maxBatchSize + " todos");
+        }
+    }
+
+    // titles are NOT NULL; checked before any write so a bad item is a 400, not a constraint violation mid-batch
+    private void checkBatchTitles(List<String> titles) {
+        for (int i = 0; i < titles.size(); i++) {
+            if (titles.get(i) == null || titles.get(i).isBlank()) {
+                throw new RuntimeException("Invalid batch item " + (i + 1) + ": title is required");
+            }
+        }
+    }
+
+    @Transactional
     public void deleteTodo(Long id) {
-        User currentUser = getCurrentUser();
-        Todo todo = todoRepository.findByIdAndUser(id, currentUser)
-                .orElseThrow(() -> new RuntimeException("Todo not found or access denied"));
-        todoRepository.delete(todo);
+        deleteTodo(id, null);
+    }
+
+    @Transactional
+    public void deleteTodo(Long id, Long expectedVersion) {
+        Long userId = getCurrentUserId();
+        int deleted = expectedVersion == null
+                ? todoRepository.deleteByIdAndUserId(id, userId)
+                : todoRepository.deleteByIdAndUserIdAndVersion(id, userId, expectedVersion);
+        if (deleted == 0) {
+            throw notFoundOrConflict(id, userId, expectedVersion);
+        }
+        userRepository.adjustTodoCount(userId, -1);
+        entityManager.persist(new TodoTombstone(id, userId, LocalDateTime.now()));
+        publish(userId, TodoChangedEvent.Type.DELETED, List.of(id));
+    }
+
+    // Delivered to stream subscribers only if the surrounding transaction commits
+    private void publish(Long userId, TodoChangedEvent.Type type, List<Long> ids) {
+        eventPublisher.publishEvent(new TodoChangedEvent(userId, type, ids));
+    }
+
+    public SseEmitter streamChanges() {
+        return eventBroadcaster.subscribe(getCurrentUserId());
+    }
+
+    // Only runs on the failure path, to tell a missing todo apart from a stale version
+    private RuntimeException notFoundOrConflict(Long id, Long userId, Long expectedVersion) {
+        if (expectedVersion != null && todoRepository.existsByIdAndUserId(id, userId)) {
+            return new RuntimeException("Todo version conflict");
+        }
+        return new RuntimeException("Todo not found or access denied");
     }
 }
\ No newline at end of file
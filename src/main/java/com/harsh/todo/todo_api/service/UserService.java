@@ -3,11 +3,11 @@ package com.harsh.todo.todo_api.service;
 import com.harsh.todo.todo_api.dto.UserDTO;
 import com.harsh.todo.todo_api.model.User;
 import com.harsh.todo.todo_api.repository.UserRepository;
+import com.harsh.todo.todo_api.security.AuthenticatedUser;
 import com.harsh.todo.todo_api.security.JwtService;
+import com.harsh.todo.todo_api.security.PasswordHasher;
+import com.harsh.todo.todo_api.security.UserIdentityCache;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -17,14 +17,15 @@ public class UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private JwtService jwtService;
 
     @Autowired
-    private JwtService jwtService;
+    private UserIdentityCache userIdentityCache;
 
+    // Neither method is transactional: no database connection is held while waiting for BCrypt
     public String registerUser(UserDTO userDTO) {
         if (userRepository.findByEmail(userDTO.getEmail()).isPresent()) {
             throw new RuntimeException("Email already exists");
@@ -33,25 +34,28 @@ public class UserService {
         User user = new User();
         user.setName(userDTO.getName());
         user.setEmail(userDTO.getEmail());
-        user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+        user.setPassword(passwordHasher.encode(userDTO.getPassword()));
         user.setRole("USER");
 
-        userRepository.save(user);
-
-        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getEmail());
-        return jwtService.generateToken(userDetails);
+        User savedUser = userRepository.save(user);
+        userIdentityCache.evict(savedUser.getEmail());
+        return jwtService.generateToken(AuthenticatedUser.from(savedUser));
     }
 
     public String loginUser(String email, String rawPassword) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!passwordEncoder.matches(rawPassword, user.getPassword())) {
+        PasswordHasher.Verification verification = passwordHasher.verify(rawPassword, user.getPassword());
+        if (!verification.matches()) {
             throw new RuntimeException("Invalid credentials");
         }
+        if (verification.upgradedHash() != null
+                && userRepository.updatePasswordHash(user.getId(), user.getPassword(), verification.upgradedHash()) > 0) {
+            userIdentityCache.evict(user.getEmail());
+        }
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-        return jwtService.generateToken(userDetails);
+        return jwtService.generateToken(AuthenticatedUser.from(user));
     }
 }
 
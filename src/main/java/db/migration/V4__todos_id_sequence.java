@@ -0,0 +1,29 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Pooled sequence for todo ids so Hibernate can batch inserts (IDENTITY disables JDBC batching).
+// Written in Java because the start value depends on existing rows and must work on both H2 and PostgreSQL.
+public class V4__todos_id_sequence extends BaseJavaMigration {
+
+    // Must match allocationSize on Todo's @SequenceGenerator
+    private static final int INCREMENT = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long maxId;
+            try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM todos")) {
+                rs.next();
+                maxId = rs.getLong(1);
+            }
+            // Hibernate's pooled optimizer hands out (value - INCREMENT, value], so start one block above the max id
+            long start = maxId + INCREMENT;
+            statement.execute("CREATE SEQUENCE todos_seq START WITH " + start + " INCREMENT BY " + INCREMENT);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+
+// Inverted (GIN) index for the text filter. PostgreSQL only; the expression must stay identical to the
+// one rendered by TodoSearchFunctionContributor or the planner will not use it.
+public class V7__todos_text_search_index extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        String product = context.getConnection().getMetaData().getDatabaseProductName();
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            return;
+        }
+        try (Statement statement = context.getConnection().createStatement()) {
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_todos_text_search ON todos USING GIN " +
+                    "(to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(description, '')))");
+        }
+    }
+}
@@ -0,0 +1,7 @@
+-- Shared token buckets for app.rate-limit.store=jdbc: theoretical arrival time (epoch microseconds) per key
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    bucket_key VARCHAR(255) PRIMARY KEY,
+    tat        BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_rate_limit_buckets_tat ON rate_limit_buckets (tat);
@@ -0,0 +1,18 @@
+-- Baseline schema, matching the User and Todo entities
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name     VARCHAR(255) NOT NULL,
+    email    VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    role     VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS todos (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title       VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    completed   BOOLEAN NOT NULL,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    user_id     BIGINT NOT NULL REFERENCES users (id)
+);
@@ -0,0 +1,6 @@
+-- Every todo query is scoped by user_id and ordered newest first.
+-- Covers findByUserId paging, the (created_at, id) keyset seek and ownership lookups.
+CREATE INDEX IF NOT EXISTS idx_todos_user_created_id ON todos (user_id, created_at DESC, id DESC);
+
+-- Covers completed-status filtering and countByUserAndCompleted.
+CREATE INDEX IF NOT EXISTS idx_todos_user_completed_created ON todos (user_id, completed, created_at DESC);
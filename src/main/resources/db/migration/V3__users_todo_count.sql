@@ -0,0 +1,4 @@
+-- Per-user materialized todo count, maintained by TodoService on create/delete
+ALTER TABLE users ADD COLUMN todo_count BIGINT DEFAULT 0 NOT NULL;
+
+UPDATE users SET todo_count = (SELECT count(*) FROM todos t WHERE t.user_id = users.id);
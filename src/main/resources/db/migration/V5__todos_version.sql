@@ -0,0 +1,2 @@
+-- Optimistic-lock version for todos; bumped by every update
+ALTER TABLE todos ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,2 @@
+-- Covers the updated-at range filter on GET /todos
+CREATE INDEX IF NOT EXISTS idx_todos_user_updated ON todos (user_id, updated_at);
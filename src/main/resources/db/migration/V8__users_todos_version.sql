@@ -0,0 +1,2 @@
+-- Per-user change counter for the todo list, bumped by every todo write; drives list ETags
+ALTER TABLE users ADD COLUMN todos_version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,8 @@
+-- Records hard-deleted todos so GET /todos/changes can report deletions; rows are purged after the retention window
+CREATE TABLE IF NOT EXISTS todo_tombstones (
+    todo_id    BIGINT PRIMARY KEY,
+    user_id    BIGINT NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_todo_tombstones_user_deleted ON todo_tombstones (user_id, deleted_at, todo_id);
@@ -0,0 +1,90 @@
+package com.harsh.todo.todo_api.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCompressionTest {
+
+    private final ResponseCompression compression = new ResponseCompression(true, DataSize.ofBytes(64),
+            new String[]{"application/json", "text/csv"});
+
+    @Test
+    void honoursQualityValuesInAcceptEncoding() {
+        assertThat(ResponseCompression.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(ResponseCompression.acceptsGzip("br;q=1.0, gzip;q=0.5")).isTrue();
+        assertThat(ResponseCompression.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ResponseCompression.acceptsGzip("*;q=0.1")).isTrue();
+        assertThat(ResponseCompression.acceptsGzip("gzip;q=0, *")).isFalse();
+        assertThat(ResponseCompression.acceptsGzip("identity")).isFalse();
+        assertThat(ResponseCompression.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    void appliesOnlyToAllowedTypesWhenEnabled() {
+        ResponseCompression disabled = new ResponseCompression(false, DataSize.ofBytes(64), new String[]{"text/csv"});
+
+        assertThat(compression.applies(MediaType.parseMediaType("text/csv"), "gzip")).isTrue();
+        assertThat(compression.applies(MediaType.parseMediaType("application/x-ndjson"), "gzip")).isFalse();
+        assertThat(disabled.applies(MediaType.parseMediaType("text/csv"), "gzip")).isFalse();
+    }
+
+    @Test
+    void streamedBodiesUnderTheThresholdAreSentAsIs() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try (OutputStream out = compression.gzip(response)) {
+            out.write("small".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getContentAsString()).isEqualTo("small");
+    }
+
+    @Test
+    void streamedBodiesOverTheThresholdAreGzippedAndMetered() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        compression.bindTo(registry);
+        String body = "a streamed todo row\n".repeat(100);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try (OutputStream out = compression.gzip(response)) {
+            for (String line : body.split("(?<=\n)")) {
+                out.write(line.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        byte[] decoded = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes();
+        assertThat(new String(decoded, StandardCharsets.UTF_8)).isEqualTo(body);
+        assertThat(registry.get("http.compression.input").tag("source", "streamed").counter().count())
+                .isEqualTo(body.length());
+        assertThat(registry.get("http.compression.output").tag("source", "streamed").counter().count())
+                .isEqualTo(response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void cachedBodiesAreGzippedLazilyAndOnce() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        compression.bindTo(registry);
+        TodoListCache cache = new TodoListCache(compression, true, 1 << 20, Duration.ofMinutes(1));
+        byte[] json = "{\"data\":[]}".repeat(20).getBytes(StandardCharsets.UTF_8);
+
+        TodoListCache.CachedBody body = cache.get("1", "limit=20", MediaType.APPLICATION_JSON, () -> json);
+        assertThat(registry.get("http.compression").tag("source", "cached").timer().count()).isZero();
+
+        byte[] first = body.gzipped();
+        byte[] again = cache.get("1", "limit=20", MediaType.APPLICATION_JSON, () -> json).gzipped();
+        assertThat(first).isNotNull().isSameAs(again);
+        assertThat(registry.get("http.compression").tag("source", "cached").timer().count()).isEqualTo(1);
+    }
+}
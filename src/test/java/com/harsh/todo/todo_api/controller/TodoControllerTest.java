@@ -0,0 +1,251 @@
+package com.harsh.todo.todo_api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harsh.todo.todo_api.model.User;
+import com.harsh.todo.todo_api.repository.UserRepository;
+import com.harsh.todo.todo_api.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// HTTP behaviour of the todo endpoints through the full filter chain and message converters, signed in as a fresh
+// user per test; every test rolls back. Rate limiting is off and the batch limit small.
+@SpringBootTest(properties = {"app.rate-limit.enabled=false", "app.todos.batch.max-size=3"})
+@AutoConfigureMockMvc
+@Transactional
+class TodoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TodoListCache todoListCache;
+
+    private RequestPostProcessor user;
+
+    @BeforeEach
+    void signIn() {
+        user = signedIn("controller");
+    }
+
+    @Test
+    void batchesOutsideTheSizeLimitAre400() throws Exception {
+        mockMvc.perform(post("/todos/batch").with(user).contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"a\"},{\"title\":\"b\"},{\"title\":\"c\"},{\"title\":\"d\"}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Batch must contain between 1 and 3 todos"));
+        mockMvc.perform(delete("/todos/batch").with(user).contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void writesToAnotherUsersTodoAre404() throws Exception {
+        long id = createTodo("mine");
+        RequestPostProcessor other = signedIn("other");
+
+        mockMvc.perform(put("/todos/" + id).with(other).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"hijacked\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/todos/" + id).with(other))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/todos/" + id).with(user))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("mine"));
+    }
+
+    @Test
+    void staleIfMatchOnWritesIs412() throws Exception {
+        long id = createTodo("mine");
+        mockMvc.perform(put("/todos/" + id).with(user).header(HttpHeaders.IF_MATCH, "\"" + id + "-0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"first\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + "-1\""));
+
+        mockMvc.perform(put("/todos/" + id).with(user).header(HttpHeaders.IF_MATCH, "\"" + id + "-0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"second\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/todos/" + id).with(user).header(HttpHeaders.IF_MATCH, "\"" + id + "-0\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void patchUpdatesOnlyTheFieldsSentAndClearsAnExplicitNull() throws Exception {
+        long id = createTodo("mine");
+        mockMvc.perform(patch("/todos/" + id).with(user).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"details\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("mine"))
+                .andExpect(jsonPath("$.description").value("details"));
+
+        mockMvc.perform(patch("/todos/" + id).with(user).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"completed\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("details"));
+
+        mockMvc.perform(patch("/todos/" + id).with(user).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("mine"))
+                .andExpect(jsonPath("$.description").doesNotExist());
+
+        mockMvc.perform(patch("/todos/" + id).with(user).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":null}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void patchOfAnotherUsersTodoIs404() throws Exception {
+        long id = createTodo("mine");
+
+        mockMvc.perform(patch("/todos/" + id).with(signedIn("other")).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"hijacked\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/todos/" + id).with(user))
+                .andExpect(jsonPath("$.title").value("mine"));
+    }
+
+    @Test
+    void patchWithStaleIfMatchIs412() throws Exception {
+        long id = createTodo("mine");
+        mockMvc.perform(patch("/todos/" + id).with(user).header(HttpHeaders.IF_MATCH, "\"" + id + "-0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"completed\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + "-1\""));
+
+        mockMvc.perform(patch("/todos/" + id).with(user).header(HttpHeaders.IF_MATCH, "\"" + id + "-0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"late\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/todos/" + id).with(user))
+                .andExpect(jsonPath("$.title").value("mine"));
+    }
+
+    @Test
+    void getTodoAnswers304ToItsOwnETag() throws Exception {
+        long id = createTodo("mine");
+        String eTag = mockMvc.perform(get("/todos/" + id).with(user))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/todos/" + id).with(user).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/todos/" + id).with(user).header(HttpHeaders.IF_NONE_MATCH, "\"" + id + "-9\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getTodosAnswers304UntilTheListChanges() throws Exception {
+        createTodo("first");
+        String eTag = mockMvc.perform(get("/todos").with(user))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/todos").with(user).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        // Another query is another representation
+        mockMvc.perform(get("/todos").param("limit", "5").with(user).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+
+        createTodo("second");
+        mockMvc.perform(get("/todos").with(user).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void ifMatchAcceptsAListOfTags() throws Exception {
+        long id = createTodo("mine");
+        String current = "\"" + id + "-0\"";
+
+        mockMvc.perform(put("/todos/" + id).with(user).header(HttpHeaders.IF_MATCH, "\"other\", " + current)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"first\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + "-1\""));
+        mockMvc.perform(put("/todos/" + id).with(user)
+                        .header(HttpHeaders.IF_MATCH, current + ", \"" + id + "-1\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"second\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + "-2\""));
+        mockMvc.perform(put("/todos/" + id).with(user)
+                        .header(HttpHeaders.IF_MATCH, current + ", \"" + id + "-1\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"third\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    // The cached list is only reachable through the current todos_version, so every write must show up in the next GET
+    @Test
+    void writesInvalidateTheCachedList() throws Exception {
+        long id = createTodo("first");
+        mockMvc.perform(get("/todos").with(user)).andExpect(status().isOk());
+        long hits = todoListCache.stats().hitCount();
+        mockMvc.perform(get("/todos").with(user))
+                .andExpect(jsonPath("$.data[*].title", contains("first")));
+        assertThat(todoListCache.stats().hitCount()).isEqualTo(hits + 1);
+
+        long secondId = createTodo("second");
+        mockMvc.perform(get("/todos").with(user))
+                .andExpect(jsonPath("$.data[*].title", containsInAnyOrder("first", "second")));
+
+        mockMvc.perform(put("/todos/" + id).with(user).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"renamed\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/todos").with(user))
+                .andExpect(jsonPath("$.data[*].title", containsInAnyOrder("renamed", "second")));
+
+        mockMvc.perform(delete("/todos/" + secondId).with(user)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/todos").with(user))
+                .andExpect(jsonPath("$.data[*].title", contains("renamed")));
+    }
+
+    @Test
+    void overLongImportRowIs400() throws Exception {
+        String rows = "{\"title\":\"ok\"}\n{\"title\":\"" + "x".repeat(256) + "\"}\n";
+
+        mockMvc.perform(post("/todos/import").with(user).contentType(TodoTransferController.NDJSON).content(rows))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid import row 2: title too long"));
+    }
+
+    private long createTodo(String title) throws Exception {
+        String body = mockMvc.perform(post("/todos").with(user).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private RequestPostProcessor signedIn(String name) {
+        User account = new User();
+        account.setName(name);
+        account.setEmail(name + "-" + System.nanoTime() + "@example.com");
+        account.setPassword("unused");
+        Long id = userRepository.save(account).getId();
+        AuthenticatedUser principal = new AuthenticatedUser(id, account.getEmail(), "", "USER");
+        return authentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
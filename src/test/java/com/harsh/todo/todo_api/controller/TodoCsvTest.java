@@ -0,0 +1,55 @@
+package com.harsh.todo.todo_api.controller;
+
+import com.harsh.todo.todo_api.dto.TodoDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TodoCsvTest {
+
+    @Test
+    void readsQuotedFieldsAndIgnoresUnknownColumns() throws Exception {
+        String csv = "\uFEFFId,Title,Description,Completed\r\n"
+                + "1,\"Buy milk, eggs\",\"She said \"\"now\"\"\",true\r\n"
+                + "\r\n"
+                + "2,Call mum,,false\n";
+
+        List<TodoDTO> todos = new ArrayList<>();
+        TodoCsv.read(new StringReader(csv)).forEachRemaining(todos::add);
+
+        assertThat(todos).extracting(TodoDTO::getTitle).containsExactly("Buy milk, eggs", "Call mum");
+        assertThat(todos).extracting(TodoDTO::getDescription).containsExactly("She said \"now\"", null);
+        assertThat(todos).extracting(TodoDTO::isCompleted).containsExactly(true, false);
+    }
+
+    @Test
+    void rejectsRecordsLongerThanTheCap() throws Exception {
+        String csv = "title\n" + "x".repeat(TodoCsv.MAX_RECORD_LENGTH + 1);
+
+        // The first record is parsed eagerly when the iterator is created
+        assertThatThrownBy(() -> TodoCsv.read(new StringReader(csv)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("longer than");
+    }
+
+    @Test
+    void rejectsHeaderWithoutTitle() {
+        assertThatThrownBy(() -> TodoCsv.read(new StringReader("name,description\n")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void acceptsRecordsUpToTheCap() throws Exception {
+        String title = "x".repeat(TodoCsv.MAX_RECORD_LENGTH - 1);
+        Iterator<TodoDTO> todos = TodoCsv.read(new StringReader("title\n" + title + "\n"));
+
+        assertThat(todos.next().getTitle()).hasSize(title.length());
+        assertThat(todos.hasNext()).isFalse();
+    }
+}
@@ -0,0 +1,64 @@
+package com.harsh.todo.todo_api.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TodoETagsTest {
+
+    private static final Supplier<Long> NO_LOOKUP = () -> {
+        throw new AssertionError("current version should not be needed");
+    };
+
+    @Test
+    void formatsGetDistinctTagsThatPinTheSameVersion() {
+        String json = TodoETags.forTodo(7L, 3L, TodoWireFormat.JSON);
+        String cbor = TodoETags.forTodo(7L, 3L, TodoWireFormat.CBOR);
+
+        assertThat(json).isEqualTo("\"7-3\"");
+        assertThat(cbor).isNotEqualTo(json);
+        assertThat(TodoETags.expectedVersion(json, 7L, NO_LOOKUP)).isEqualTo(3L);
+        assertThat(TodoETags.expectedVersion(cbor, 7L, NO_LOOKUP)).isEqualTo(3L);
+        assertThat(TodoETags.expectedVersion("*", 7L, NO_LOOKUP)).isNull();
+        assertThatThrownBy(() -> TodoETags.expectedVersion(cbor, 8L, NO_LOOKUP)).hasMessageContaining("version conflict");
+    }
+
+    @Test
+    void listTagsSeparateQueriesWhoseStringHashesCollide() {
+        // "Aa" and "BB" have the same String.hashCode
+        assertThat("page=Aa".hashCode()).isEqualTo("page=BB".hashCode());
+        assertThat(TodoETags.forList("1-4", "page=Aa", TodoWireFormat.JSON, false))
+                .isNotEqualTo(TodoETags.forList("1-4", "page=BB", TodoWireFormat.JSON, false));
+        assertThat(TodoETags.forList("1-4", "page=Aa", TodoWireFormat.JSON, false))
+                .isEqualTo(TodoETags.forList("1-4", "page=Aa", TodoWireFormat.JSON, false))
+                .matches("\"l1-4-[A-Za-z0-9_-]{43}\"");
+    }
+
+    @Test
+    void ifMatchListsAreParsed() {
+        // Tags of other todos and weak tags are skipped; the one strong tag for todo 7 pins its version
+        assertThat(TodoETags.expectedVersion("\"8-1\", W/\"7-2\", \"7-3-cbor\"", 7L, NO_LOOKUP)).isEqualTo(3L);
+        assertThat(TodoETags.expectedVersion("\"7-3\",\"7-3-cbor\"", 7L, NO_LOOKUP)).isEqualTo(3L);
+        // Several versions of the todo: the current one wins if it is listed
+        assertThat(TodoETags.expectedVersion("\"7-3\", \"7-4\"", 7L, () -> 4L)).isEqualTo(4L);
+        assertThatThrownBy(() -> TodoETags.expectedVersion("\"7-3\", \"7-4\"", 7L, () -> 5L))
+                .hasMessageContaining("version conflict");
+        assertThatThrownBy(() -> TodoETags.expectedVersion("\"8-1\", W/\"7-3\"", 7L, NO_LOOKUP))
+                .hasMessageContaining("version conflict");
+        assertThatThrownBy(() -> TodoETags.expectedVersion("\"7-3", 7L, NO_LOOKUP))
+                .hasMessageContaining("version conflict");
+    }
+
+    @Test
+    void negotiationFallsBackToJsonOnHeadersItCannotSort() {
+        String longAccept = "application/cbor;q=0.9," + "text/plain;q=0.1,".repeat(60) + "application/json";
+
+        assertThat(TodoWireFormat.negotiate(longAccept)).isEqualTo(TodoWireFormat.JSON);
+        assertThat(TodoWireFormat.negotiate("not a media type")).isEqualTo(TodoWireFormat.JSON);
+        assertThat(TodoWireFormat.negotiate("application/cbor, application/json;q=0.5")).isEqualTo(TodoWireFormat.CBOR);
+        assertThat(TodoWireFormat.negotiate("application/cbor;q=0, */*")).isEqualTo(TodoWireFormat.JSON);
+    }
+}
@@ -0,0 +1,31 @@
+package com.harsh.todo.todo_api.repository;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The PostgreSQL tsquery is not run by the H2-backed tests, so its argument is pinned here
+class TodoSearchFunctionContributorTest {
+
+    @Test
+    void queryWordsBecomePrefixTermsOnPostgres() {
+        assertThat(TodoSearchFunctionContributor.searchArgument("  Docs, e-mail!", new PostgreSQLDialect()))
+                .isEqualTo("docs:* & e:* & mail:*");
+        assertThat(TodoSearchFunctionContributor.searchArgument("Größe 2", new PostgreSQLDialect()))
+                .isEqualTo("größe:* & 2:*");
+    }
+
+    @Test
+    void queriesWithoutWordsMatchNothing() {
+        assertThat(TodoSearchFunctionContributor.searchArgument("%_*'&|!", new PostgreSQLDialect())).isNull();
+        assertThat(TodoSearchFunctionContributor.searchArgument(" .* ", new H2Dialect())).isNull();
+    }
+
+    @Test
+    void otherDatabasesGetOneWordStartLookaheadPerWord() {
+        assertThat(TodoSearchFunctionContributor.searchArgument("doc fix", new H2Dialect()))
+                .isEqualTo("(?s)^(?=.*(^|[^\\p{L}\\p{N}])doc)(?=.*(^|[^\\p{L}\\p{N}])fix)");
+    }
+}
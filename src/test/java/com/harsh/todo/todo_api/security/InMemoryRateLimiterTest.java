@@ -0,0 +1,60 @@
+package com.harsh.todo.todo_api.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// GCRA buckets driven by a fake ticker, so refill and idle expiry need no sleeping
+class InMemoryRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final InMemoryRateLimiter limiter = new InMemoryRateLimiter(1000, Duration.ofSeconds(10), nanos::get);
+
+    @Test
+    void allowsBurstUpToCapacityThenRefillsOneTokenPerInterval() {
+        RateLimitPolicy policy = new RateLimitPolicy("test", 3, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("k", policy)).isZero();
+        }
+        assertThat(limiter.tryAcquire("k", policy)).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+
+        advance(Duration.ofMillis(400));
+        assertThat(limiter.tryAcquire("k", policy)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(600));
+
+        advance(Duration.ofMillis(600));
+        assertThat(limiter.tryAcquire("k", policy)).isZero();
+        assertThat(limiter.tryAcquire("k", policy)).isPositive();
+    }
+
+    @Test
+    void keysAreIndependent() {
+        RateLimitPolicy policy = new RateLimitPolicy("test", 1, 1);
+
+        assertThat(limiter.tryAcquire("a", policy)).isZero();
+        assertThat(limiter.tryAcquire("a", policy)).isPositive();
+        assertThat(limiter.tryAcquire("b", policy)).isZero();
+    }
+
+    @Test
+    void idleBucketsAreEvictedAndStartFull() {
+        // One token every 1000s: only eviction can hand out a second token within the test
+        RateLimitPolicy policy = new RateLimitPolicy("test", 1, 0.001);
+
+        assertThat(limiter.tryAcquire("k", policy)).isZero();
+        assertThat(limiter.tryAcquire("k", policy)).isPositive();
+        assertThat(limiter.trackedKeys()).isEqualTo(1);
+
+        advance(Duration.ofSeconds(11));
+        assertThat(limiter.trackedKeys()).isZero();
+        assertThat(limiter.tryAcquire("k", policy)).isZero();
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
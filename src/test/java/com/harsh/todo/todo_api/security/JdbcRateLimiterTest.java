@@ -0,0 +1,104 @@
+package com.harsh.todo.todo_api.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The shared-store limiter against a throwaway H2 database built from the real migration
+class JdbcRateLimiterTest {
+
+    private final EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .addScript("db/migration/V10__rate_limit_buckets.sql")
+            .build();
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T12:00:00Z"));
+    private final JdbcRateLimiter limiter = new JdbcRateLimiter(jdbcTemplate, Duration.ofMinutes(10), clock);
+
+    @AfterEach
+    void shutDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void allowsBurstUpToCapacityThenRefills() {
+        RateLimitPolicy policy = new RateLimitPolicy("test", 3, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("k", policy)).isZero();
+        }
+        assertThat(limiter.tryAcquire("k", policy)).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+
+        clock.advance(Duration.ofMillis(400));
+        assertThat(limiter.tryAcquire("k", policy)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(600));
+
+        clock.advance(Duration.ofMillis(600));
+        assertThat(limiter.tryAcquire("k", policy)).isZero();
+        assertThat(limiter.tryAcquire("k", policy)).isPositive();
+    }
+
+    @Test
+    void limitersSharingTheTableShareTheBucket() {
+        JdbcRateLimiter otherNode = new JdbcRateLimiter(jdbcTemplate, Duration.ofMinutes(10), clock);
+        RateLimitPolicy policy = new RateLimitPolicy("test", 2, 1);
+
+        assertThat(limiter.tryAcquire("k", policy)).isZero();
+        assertThat(otherNode.tryAcquire("k", policy)).isZero();
+        assertThat(limiter.tryAcquire("k", policy)).isPositive();
+        assertThat(otherNode.tryAcquire("k", policy)).isPositive();
+    }
+
+    @Test
+    void purgeDropsOnlyIdleBuckets() {
+        RateLimitPolicy policy = new RateLimitPolicy("test", 5, 1);
+        limiter.tryAcquire("idle", policy);
+        clock.advance(Duration.ofMinutes(11));
+        limiter.tryAcquire("active", policy);
+
+        limiter.purgeIdleBuckets();
+
+        assertThat(jdbcTemplate.queryForList("SELECT bucket_key FROM rate_limit_buckets", String.class))
+                .containsExactly("active");
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
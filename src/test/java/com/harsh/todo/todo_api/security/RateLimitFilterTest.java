@@ -0,0 +1,103 @@
+package com.harsh.todo.todo_api.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Policy selection and the 429 response, with a recording stub in place of a real limiter
+class RateLimitFilterTest {
+
+    private final List<String> keys = new ArrayList<>();
+    private final List<RateLimitPolicy> policies = new ArrayList<>();
+    private long waitNanos;
+
+    private final RateLimiter limiter = (key, policy) -> {
+        keys.add(key);
+        policies.add(policy);
+        return waitNanos;
+    };
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rejectsWith429AndRetryAfterRoundedUp() throws Exception {
+        waitNanos = 1_500_000_000L;
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter("", "").doFilter(request("GET", "/todos"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(response.getContentAsString()).contains("Too many requests");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void picksAuthRouteUserAndCategoryPolicies() throws Exception {
+        RateLimitFilter filter = filter("POST /todos/import=5:0.05", "42=1000:200");
+
+        filter.doFilter(request("POST", "/login"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(request("GET", "/todos"), new MockHttpServletResponse(), new MockFilterChain());
+        signIn(42L);
+        filter.doFilter(request("POST", "/todos/import"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(request("DELETE", "/todos/1"), new MockHttpServletResponse(), new MockFilterChain());
+        signIn(7L);
+        filter.doFilter(request("DELETE", "/todos/1"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(policies).extracting(RateLimitPolicy::name)
+                .containsExactly("auth", "read", "route POST /todos/import", "user 42", "write");
+        assertThat(keys).containsExactly("auth:ip:10.0.0.1", "read:ip:10.0.0.1",
+                "route POST /todos/import:user:42", "user 42:user:42", "write:user:7");
+    }
+
+    @Test
+    void rejectsMalformedOverrides() {
+        assertThatThrownBy(() -> filter("/todos/import=5:1", "")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> filter("", "alice=5:1")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> filter("", "42=5")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void clientIpFilterRunsOneBucketPerAddress() throws Exception {
+        ClientIpRateLimitFilter filter = new ClientIpRateLimitFilter(limiter, true, 1000, 200);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("GET", "/todos"), new MockHttpServletResponse(), chain);
+
+        assertThat(keys).containsExactly("client-ip:10.0.0.1");
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    private RateLimitFilter filter(String routes, String users) {
+        return new RateLimitFilter(limiter, true, 10, 0.5, 200, 50, 50, 10,
+                routes.isEmpty() ? new String[0] : routes.split(","),
+                users.isEmpty() ? new String[0] : users.split(","));
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+
+    private static void signIn(Long userId) {
+        AuthenticatedUser principal = new AuthenticatedUser(userId, "user" + userId + "@example.com", "", "USER");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,218 @@
+package com.harsh.todo.todo_api.service;
+
+import com.harsh.todo.todo_api.dto.CursorTodoResponse;
+import com.harsh.todo.todo_api.dto.TodoChangesResponse;
+import com.harsh.todo.todo_api.dto.TodoDTO;
+import com.harsh.todo.todo_api.dto.TodoResponse;
+import com.harsh.todo.todo_api.model.User;
+import com.harsh.todo.todo_api.repository.TodoFilter;
+import com.harsh.todo.todo_api.repository.UserRepository;
+import com.harsh.todo.todo_api.security.AuthenticatedUser;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Keyset paging, text search, delta sync and export over the service against the embedded H2 schema; every test rolls back.
+// A tiny export chunk makes the export cross chunk boundaries.
+@SpringBootTest(properties = "app.todos.export.chunk-size=2")
+@Transactional
+class TodoServicePagingTest {
+
+    private static final LocalDateTime SAME_INSTANT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Long userId;
+
+    @BeforeEach
+    void signIn() {
+        User user = new User();
+        user.setName("Paging");
+        user.setEmail("paging-" + System.nanoTime() + "@example.com");
+        user.setPassword("unused");
+        userId = userRepository.save(user).getId();
+        AuthenticatedUser principal = new AuthenticatedUser(userId, user.getEmail(), "", "USER");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cursorTokenRoundTripsAndRejectsGarbage() {
+        TodoCursor cursor = new TodoCursor(LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_000), 42L);
+
+        assertThat(TodoCursor.decode(cursor.encode())).isEqualTo(cursor);
+        assertThatThrownBy(() -> TodoCursor.decode("not-a-cursor")).hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void cursorPagesThroughTodosSharingCreatedAt() {
+        List<Long> ids = createTodos(7);
+        jdbcTemplate.update("UPDATE todos SET created_at = ? WHERE user_id = ?", Timestamp.valueOf(SAME_INSTANT), userId);
+
+        List<Long> newestFirst = new ArrayList<>(ids);
+        newestFirst.sort(Comparator.reverseOrder());
+        // Unfiltered seek and the criteria-built filtered seek must agree
+        for (TodoFilter filter : List.of(TodoFilter.NONE, new TodoFilter(false, null, null, null, null, null))) {
+            List<Long> seen = new ArrayList<>();
+            List<Integer> pageSizes = new ArrayList<>();
+            String cursor = "";
+            do {
+                CursorTodoResponse page = todoService.getAllTodosAfter(cursor, 3, filter);
+                page.getData().forEach(todo -> seen.add(todo.getId()));
+                pageSizes.add(page.getData().size());
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            assertThat(seen).containsExactlyElementsOf(newestFirst);
+            assertThat(pageSizes).containsExactly(3, 3, 1);
+        }
+    }
+
+    @Test
+    void offsetPagesNeitherRepeatNorSkipTodosSharingCreatedAt() {
+        List<Long> ids = createTodos(7);
+        jdbcTemplate.update("UPDATE todos SET created_at = ? WHERE user_id = ?", Timestamp.valueOf(SAME_INSTANT), userId);
+
+        List<Long> seen = new ArrayList<>();
+        for (int page = 1; page <= 3; page++) {
+            todoService.getAllTodosPaginated(page, 3, TodoFilter.NONE, "createdAt", "desc").getData()
+                    .forEach(todo -> seen.add(todo.getId()));
+        }
+
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    @Test
+    void streamedPageCountsTotalAndDetectsNextPage() {
+        List<Long> ids = createTodos(5);
+
+        List<Long> streamed = new ArrayList<>();
+        TodoService.StreamedPage first = todoService.streamTodosPage(1, 3, TodoFilter.NONE, "createdAt", "desc", true,
+                todo -> streamed.add(todo.getId()));
+        TodoService.StreamedPage last = todoService.streamTodosPage(2, 3, TodoFilter.NONE, "createdAt", "desc", false,
+                todo -> streamed.add(todo.getId()));
+
+        assertThat(first.total()).isEqualTo(5);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.total()).isNull();
+        assertThat(last.hasNext()).isFalse();
+        assertThat(streamed).containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    // Same semantics as the PostgreSQL prefix tsquery: every query word must start a word, in any order
+    @Test
+    void textFilterMatchesWordPrefixes() {
+        List<Long> ids = createTodos(4);
+        jdbcTemplate.update("UPDATE todos SET title = 'Write the docs', description = 'for the release' WHERE id = ?", ids.get(0));
+        jdbcTemplate.update("UPDATE todos SET title = 'undocumented API', description = NULL WHERE id = ?", ids.get(1));
+        jdbcTemplate.update("UPDATE todos SET title = '100% done', description = 'e-mail_the team' WHERE id = ?", ids.get(2));
+
+        assertThat(search("doc")).containsExactly(ids.get(0));
+        assertThat(search("DOCS write")).containsExactly(ids.get(0));
+        assertThat(search("release doc")).containsExactly(ids.get(0));
+        assertThat(search("docs missing")).isEmpty();
+        assertThat(search("undoc")).containsExactly(ids.get(1));
+        assertThat(search("mail team")).containsExactly(ids.get(2));
+        assertThat(search("100%")).containsExactly(ids.get(2));
+        // LIKE and regex metacharacters are word separators, not patterns
+        assertThat(search("0%")).isEmpty();
+        assertThat(search(".*")).isEmpty();
+        assertThat(search("todo_")).containsExactly(ids.get(3));
+    }
+
+    @Test
+    void changesMergeUpdatesAndTombstonesAcrossPageBoundaries() {
+        List<Long> ids = createTodos(5);
+        todoService.deleteTodos(List.of(ids.get(3), ids.get(4)));
+        entityManager.flush();
+
+        // Interleave writes and deletions: a(+1) d(+2) b(+3) e(+4) c(+5) minutes after the watermark
+        LocalDateTime base = LocalDateTime.now().minusHours(1).withNano(0);
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("UPDATE todos SET updated_at = ? WHERE id = ?",
+                    Timestamp.valueOf(base.plusMinutes(1 + 2L * i)), ids.get(i));
+        }
+        for (int i = 0; i < 2; i++) {
+            jdbcTemplate.update("UPDATE todo_tombstones SET deleted_at = ? WHERE todo_id = ?",
+                    Timestamp.valueOf(base.plusMinutes(2 + 2L * i)), ids.get(3 + i));
+        }
+
+        List<Long> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        List<Boolean> hasMore = new ArrayList<>();
+        String watermark = new TodoCursor(base, 0L).encode();
+        TodoChangesResponse page;
+        do {
+            page = todoService.getChangesSince(watermark, 2);
+            page.getChanged().forEach(todo -> changed.add(todo.getId()));
+            page.getDeleted().forEach(todo -> deleted.add(todo.getId()));
+            hasMore.add(page.isHasMore());
+            watermark = page.getWatermark();
+        } while (page.isHasMore());
+
+        assertThat(changed).containsExactly(ids.get(0), ids.get(1), ids.get(2));
+        assertThat(deleted).containsExactly(ids.get(3), ids.get(4));
+        assertThat(hasMore).containsExactly(true, true, false);
+    }
+
+    @Test
+    void exportWalksEveryTodoOldestFirstAcrossChunks() {
+        List<Long> ids = createTodos(5);
+
+        List<Long> exported = new ArrayList<>();
+        long rows = todoService.exportTodos(todo -> exported.add(todo.getId()));
+
+        assertThat(rows).isEqualTo(5);
+        assertThat(exported).containsExactlyElementsOf(ids.stream().sorted().toList());
+    }
+
+    private List<Long> search(String q) {
+        return todoService.getAllTodosPaginated(1, 10, new TodoFilter(null, null, null, null, null, q), "createdAt", "desc")
+                .getData().stream().map(TodoResponse::getId).toList();
+    }
+
+    private List<Long> createTodos(int count) {
+        List<TodoDTO> todos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TodoDTO todo = new TodoDTO();
+            todo.setTitle("todo " + i);
+            todos.add(todo);
+        }
+        List<Long> ids = todoService.createTodos(todos).stream().map(TodoResponse::getId).toList();
+        // Inserts are batched; push them out before editing rows with plain JDBC
+        entityManager.flush();
+        return ids;
+    }
+}
@@ -0,0 +1,347 @@
+package com.harsh.todo.todo_api.service;
+
+import com.harsh.todo.todo_api.dto.TodoBatchUpdateDTO;
+import com.harsh.todo.todo_api.dto.TodoDTO;
+import com.harsh.todo.todo_api.dto.TodoPatchDTO;
+import com.harsh.todo.todo_api.dto.TodoResponse;
+import com.harsh.todo.todo_api.model.User;
+import com.harsh.todo.todo_api.repository.TodoRepository;
+import com.harsh.todo.todo_api.repository.UserRepository;
+import com.harsh.todo.todo_api.security.AuthenticatedUser;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Write paths of the service against the embedded H2 schema: ownership scoping, the counters on users and
+// tombstones. Every test rolls back. A small batch limit keeps the size checks cheap.
+@SpringBootTest(properties = "app.todos.batch.max-size=3")
+@Transactional
+class TodoServiceWriteTest {
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Long userId;
+    private Long otherUserId;
+
+    @BeforeEach
+    void setUp() {
+        otherUserId = signIn("other");
+        userId = signIn("writer");
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void batchesOutsideTheSizeLimitAreRejected() {
+        assertThatThrownBy(() -> todoService.createTodos(List.of()))
+                .hasMessage("Batch must contain between 1 and 3 todos");
+        assertThatThrownBy(() -> todoService.createTodos(Collections.nCopies(4, todo("too many"))))
+                .hasMessage("Batch must contain between 1 and 3 todos");
+        assertThatThrownBy(() -> todoService.deleteTodos(List.of(1L, 2L, 3L, 4L)))
+                .hasMessage("Batch must contain between 1 and 3 todos");
+    }
+
+    @Test
+    void batchCreateAdjustsTodoCountAndVersionOnce() {
+        createTodos(3);
+
+        assertThat(todoCount(userId)).isEqualTo(3);
+        assertThat(todosVersion(userId)).isEqualTo(1);
+    }
+
+    @Test
+    void batchUpdateLeavesForeignTodosUntouched() {
+        Long foreignId = createTodosAs(otherUserId, 1).get(0);
+        Long ownId = createTodos(1).get(0);
+        long otherVersion = todosVersion(otherUserId);
+
+        List<TodoBatchUpdateDTO> updates = List.of(update(ownId, "mine"), update(foreignId, "hijacked"));
+        assertThatThrownBy(() -> todoService.updateTodos(updates)).hasMessage("Todo not found or access denied");
+        entityManager.flush();
+
+        assertThat(title(foreignId)).isEqualTo("todo 0");
+        assertThat(todosVersion(otherUserId)).isEqualTo(otherVersion);
+    }
+
+    @Test
+    void batchUpdateBumpsListVersionButNotCount() {
+        List<Long> ids = createTodos(2);
+        long version = todosVersion(userId);
+
+        List<TodoResponse> updated = todoService.updateTodos(List.of(update(ids.get(0), "a"), update(ids.get(1), "b")));
+        entityManager.flush();
+
+        assertThat(updated).extracting(TodoResponse::getTitle).containsExactly("a", "b");
+        assertThat(title(ids.get(1))).isEqualTo("b");
+        assertThat(todoCount(userId)).isEqualTo(2);
+        assertThat(todosVersion(userId)).isEqualTo(version + 1);
+    }
+
+    @Test
+    void batchDeleteLeavesForeignTodosAndWritesNoForeignTombstones() {
+        Long foreignId = createTodosAs(otherUserId, 1).get(0);
+        Long ownId = createTodos(1).get(0);
+
+        assertThatThrownBy(() -> todoService.deleteTodos(List.of(ownId, foreignId)))
+                .hasMessage("Todo not found or access denied");
+        entityManager.flush();
+
+        assertThat(title(foreignId)).isEqualTo("todo 0");
+        assertThat(todoCount(otherUserId)).isEqualTo(1);
+        assertThat(tombstones(foreignId)).isZero();
+    }
+
+    @Test
+    void batchDeleteWritesTombstonesAndAdjustsCounters() {
+        List<Long> ids = createTodos(3);
+        long version = todosVersion(userId);
+
+        // A repeated id counts once
+        todoService.deleteTodos(List.of(ids.get(0), ids.get(1), ids.get(0)));
+        entityManager.flush();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM todos WHERE user_id = ?", Long.class, userId))
+                .isEqualTo(1);
+        assertThat(tombstones(ids.get(0))).isEqualTo(1);
+        assertThat(tombstones(ids.get(1))).isEqualTo(1);
+        assertThat(tombstones(ids.get(2))).isZero();
+        assertThat(todoCount(userId)).isEqualTo(1);
+        assertThat(todosVersion(userId)).isEqualTo(version + 1);
+    }
+
+    @Test
+    void singleWritesToAForeignTodoAreNotFoundAndChangeNothing() {
+        Long foreignId = createTodosAs(otherUserId, 1).get(0);
+        long otherVersion = todosVersion(otherUserId);
+
+        assertThatThrownBy(() -> todoService.updateTodo(foreignId, todo("hijacked")))
+                .hasMessage("Todo not found or access denied");
+        assertThatThrownBy(() -> todoService.updateTodo(foreignId, todo("hijacked"), 0L))
+                .hasMessage("Todo not found or access denied");
+        assertThatThrownBy(() -> todoService.deleteTodo(foreignId))
+                .hasMessage("Todo not found or access denied");
+        assertThatThrownBy(() -> todoService.deleteTodo(foreignId, 0L))
+                .hasMessage("Todo not found or access denied");
+        entityManager.flush();
+
+        assertThat(title(foreignId)).isEqualTo("todo 0");
+        assertThat(rowVersion(foreignId)).isZero();
+        assertThat(todoCount(otherUserId)).isEqualTo(1);
+        assertThat(todosVersion(otherUserId)).isEqualTo(otherVersion);
+        assertThat(tombstones(foreignId)).isZero();
+    }
+
+    @Test
+    void staleVersionIsAConflictNotAMissingTodo() {
+        Long id = createTodos(1).get(0);
+
+        todoService.updateTodo(id, todo("first"), 0L);
+        assertThatThrownBy(() -> todoService.updateTodo(id, todo("second"), 0L))
+                .hasMessage("Todo version conflict");
+        assertThatThrownBy(() -> todoService.deleteTodo(id, 0L))
+                .hasMessage("Todo version conflict");
+        entityManager.flush();
+
+        assertThat(title(id)).isEqualTo("first");
+        assertThat(rowVersion(id)).isEqualTo(1);
+        assertThat(tombstones(id)).isZero();
+    }
+
+    @Test
+    void singleDeleteWithCurrentVersionWritesTombstone() {
+        Long id = createTodos(1).get(0);
+
+        todoService.deleteTodo(id, 0L);
+        entityManager.flush();
+
+        assertThat(tombstones(id)).isEqualTo(1);
+        assertThat(todoCount(userId)).isZero();
+    }
+
+    @Test
+    void patchWritesOnlyTheFieldsSent() {
+        Long id = createTodos(1).get(0);
+        jdbcTemplate.update("UPDATE todos SET description = 'keep me' WHERE id = ?", id);
+
+        TodoPatchDTO patch = new TodoPatchDTO();
+        patch.setCompleted(true);
+        TodoResponse patched = todoService.patchTodo(id, patch, 0L);
+        entityManager.flush();
+
+        assertThat(patched.getTitle()).isEqualTo("todo 0");
+        assertThat(patched.getDescription()).isEqualTo("keep me");
+        assertThat(jdbcTemplate.queryForObject("SELECT completed FROM todos WHERE id = ?", Boolean.class, id)).isTrue();
+        assertThat(rowVersion(id)).isEqualTo(1);
+    }
+
+    @Test
+    void patchWithExplicitNullDescriptionClearsIt() {
+        Long id = createTodos(1).get(0);
+        jdbcTemplate.update("UPDATE todos SET description = 'clear me' WHERE id = ?", id);
+
+        TodoPatchDTO patch = new TodoPatchDTO();
+        patch.setDescription(null);
+        TodoResponse patched = todoService.patchTodo(id, patch);
+        entityManager.flush();
+
+        assertThat(patched.getDescription()).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT description FROM todos WHERE id = ?", String.class, id)).isNull();
+        assertThat(title(id)).isEqualTo("todo 0");
+    }
+
+    // The non-RETURNING fallback used on other databases clears the same way
+    @Test
+    void criteriaPatchClearsDescription() {
+        Long id = createTodos(1).get(0);
+        jdbcTemplate.update("UPDATE todos SET description = 'clear me' WHERE id = ?", id);
+
+        int updated = todoRepository.patchByIdAndUserId(id, userId, null, null, null, true, null, LocalDateTime.now());
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT description FROM todos WHERE id = ?", String.class, id)).isNull();
+    }
+
+    @Test
+    void patchRejectsEmptyBodiesAndNullRequiredFields() {
+        Long id = createTodos(1).get(0);
+        TodoPatchDTO nullTitle = new TodoPatchDTO();
+        nullTitle.setTitle(null);
+        TodoPatchDTO nullCompleted = new TodoPatchDTO();
+        nullCompleted.setCompleted(null);
+
+        assertThatThrownBy(() -> todoService.patchTodo(id, new TodoPatchDTO()))
+                .hasMessage("Patch must contain at least one field");
+        assertThatThrownBy(() -> todoService.patchTodo(id, nullTitle)).hasMessage("Patch must not clear title");
+        assertThatThrownBy(() -> todoService.patchTodo(id, nullCompleted))
+                .hasMessage("Patch must not set completed to null");
+    }
+
+    @Test
+    void patchOfAForeignOrStaleTodoChangesNothing() {
+        Long foreignId = createTodosAs(otherUserId, 1).get(0);
+        Long id = createTodos(1).get(0);
+        TodoPatchDTO patch = new TodoPatchDTO();
+        patch.setTitle("hijacked");
+
+        assertThatThrownBy(() -> todoService.patchTodo(foreignId, patch)).hasMessage("Todo not found or access denied");
+        assertThatThrownBy(() -> todoService.patchTodo(id, patch, 7L)).hasMessage("Todo version conflict");
+        entityManager.flush();
+
+        assertThat(title(foreignId)).isEqualTo("todo 0");
+        assertThat(title(id)).isEqualTo("todo 0");
+    }
+
+    @Test
+    void importRejectsRowsLongerThanTheColumns() {
+        TodoDTO longTitle = todo("x".repeat(256));
+        TodoDTO longDescription = todo("fine");
+        longDescription.setDescription("y".repeat(256));
+
+        assertThatThrownBy(() -> todoService.importTodos(List.of(todo("ok"), longTitle).iterator()))
+                .hasMessage("Invalid import row 2: title too long");
+        assertThatThrownBy(() -> todoService.importTodos(List.of(longDescription).iterator()))
+                .hasMessage("Invalid import row 1: description too long");
+        assertThat(todoService.importTodos(List.of(todo("z".repeat(255))).iterator())).isEqualTo(1);
+    }
+
+    private Long signIn(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "-" + System.nanoTime() + "@example.com");
+        user.setPassword("unused");
+        Long id = userRepository.save(user).getId();
+        AuthenticatedUser principal = new AuthenticatedUser(id, user.getEmail(), "", "USER");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        return id;
+    }
+
+    private List<Long> createTodosAs(Long ownerId, int count) {
+        Authentication current = SecurityContextHolder.getContext().getAuthentication();
+        AuthenticatedUser owner = new AuthenticatedUser(ownerId, "owner-" + ownerId + "@example.com", "", "USER");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(owner, null, owner.getAuthorities()));
+        try {
+            return createTodos(count);
+        } finally {
+            SecurityContextHolder.getContext().setAuthentication(current);
+        }
+    }
+
+    private List<Long> createTodos(int count) {
+        List<TodoDTO> todos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            todos.add(todo("todo " + i));
+        }
+        List<Long> ids = todoService.createTodos(todos).stream().map(TodoResponse::getId).toList();
+        // Inserts are batched; push them out before reading rows with plain JDBC
+        entityManager.flush();
+        return ids;
+    }
+
+    private static TodoDTO todo(String title) {
+        TodoDTO todo = new TodoDTO();
+        todo.setTitle(title);
+        return todo;
+    }
+
+    private static TodoBatchUpdateDTO update(Long id, String title) {
+        TodoBatchUpdateDTO update = new TodoBatchUpdateDTO();
+        update.setId(id);
+        update.setTitle(title);
+        return update;
+    }
+
+    private String title(Long id) {
+        return jdbcTemplate.queryForObject("SELECT title FROM todos WHERE id = ?", String.class, id);
+    }
+
+    private long rowVersion(Long id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM todos WHERE id = ?", Long.class, id);
+    }
+
+    private long todoCount(Long id) {
+        return jdbcTemplate.queryForObject("SELECT todo_count FROM users WHERE id = ?", Long.class, id);
+    }
+
+    private long todosVersion(Long id) {
+        return jdbcTemplate.queryForObject("SELECT todos_version FROM users WHERE id = ?", Long.class, id);
+    }
+
+    private long tombstones(Long todoId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM todo_tombstones WHERE todo_id = ?", Long.class, todoId);
+    }
+}